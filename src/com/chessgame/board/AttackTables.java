@@ -0,0 +1,239 @@
+package com.chessgame.board;
+
+import com.chessgame.player.Team;
+
+// AttackTables holds the precomputed attack sets of the chess pieces, built once when the class is loaded and shared by
+//  move generation, check detection and evaluation. All attack sets are BitBoard masks.
+// Knights, Kings and Pawns have a single 64-entry table each (one per team for the Pawns), so that a move off the
+//  board edge can never wrap around to the other side of the board.
+// Sliding pieces (Bishop, Rook, Queen) use magic bitboards: the occupied tiles relevant to a slider on a given tile
+//  are multiplied by a "magic" number, and the top bits of the product index a table holding the attack set for that
+//  exact occupancy.
+public final class AttackTables {
+    // (row, column) steps of the non sliding pieces:
+    private static final int[][] KNIGHT_STEPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+    private static final int[][] WHITE_PAWN_STEPS = {{-1, -1}, {-1, 1}}; // White pawns move up the board
+    private static final int[][] BLACK_PAWN_STEPS = {{1, -1}, {1, 1}}; // Black pawns move down the board
+    // (row, column) steps of the sliding directions:
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {0, -1}, {0, 1}, {1, 0}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+    // Magic numbers of each tile, found once by a random trial search over sparse 64-bit numbers, keeping the first one
+    //  that maps every relevant occupancy of the tile to a table entry without a harmful collision:
+    private static final long[] ROOK_MAGICS = {
+            0x0080008020400012L, 0x0840200040001002L, 0x0480100020008009L, 0x0100081000050020L,
+            0x1001000810804020L, 0x090003000E140008L, 0x0080008002000100L, 0x0200010C40802A04L,
+            0x0010802040008000L, 0x0001804000802000L, 0x1001803000802002L, 0x3042808010008800L,
+            0x0112800402080081L, 0x0006001002000804L, 0x01410004E1000200L, 0x0002000082011044L,
+            0x02C0208000400080L, 0x3000858020094000L, 0x0600808010002000L, 0x1005050020100008L,
+            0x0008004040040200L, 0x0004004002010040L, 0x0024040001020850L, 0x2084020004884524L,
+            0x0000400280008020L, 0x1502010200408021L, 0x5010004101002000L, 0x1000100080800800L,
+            0x219A001200200804L, 0x0000020080040080L, 0x4409000100020004L, 0x0000410200004084L,
+            0x0280804004800028L, 0x0100401000402000L, 0x0010008018802003L, 0x9200801000800803L,
+            0x1028004200400400L, 0x0C00020080800400L, 0x8920883044002102L, 0xA000040486000143L,
+            0x0520400020818000L, 0x209000200050C004L, 0x0400802200420011L, 0x0010010010210008L,
+            0x0004000800048080L, 0x2002000410020008L, 0x04000142A8040010L, 0x0000850488420014L,
+            0x0080022000400440L, 0x0512824200210200L, 0x1010008810200080L, 0x0005042010000900L,
+            0x2000800800040080L, 0x0042000910040200L, 0x4301000402000100L, 0x0000040080410200L,
+            0x0902032090884102L, 0x020010C084A20302L, 0x809480102200400AL, 0x20C0100021000409L,
+            0x040B000800100205L, 0x0001000204000801L, 0x1104281012014084L, 0x8080E40142802D02L
+    };
+    private static final long[] BISHOP_MAGICS = {
+            0x0088020808002880L, 0x3024041810450E41L, 0x51C1040080888000L, 0x4009204200011020L,
+            0x100C042300204060L, 0x4001042004004008L, 0x0054961052200000L, 0x0008220210010824L,
+            0x0962041042084100L, 0x8000100128010258L, 0x3080110906060100L, 0x0040022082022002L,
+            0x1482C40504000009L, 0x0204310120110010L, 0x4000808804900408L, 0x0282004208040200L,
+            0x0840302044448080L, 0x2211142002008102L, 0x0204044200240900L, 0x4108001082014000L,
+            0x0801040820080220L, 0x0800402208200400L, 0x0004010210820801L, 0x088088020200B208L,
+            0x2504500184301000L, 0x0492204068211C00L, 0x4004300408008020L, 0x0608080100220020L,
+            0x0021001001004000L, 0x8008014020826001L, 0x820800A001088848L, 0x8101220020218C14L,
+            0xA20404A0010420ECL, 0x8300821000481004L, 0x0000104800100480L, 0x0111420080480080L,
+            0x2240004100001100L, 0x0000880280AB1004L, 0x0008089500440105L, 0x0081240101002100L,
+            0x2020886012050802L, 0x0107080210750210L, 0x4140804040400820L, 0x1400901144000800L,
+            0x0290408491000A00L, 0x100122048B000201L, 0xA008500102000060L, 0x0208120420204044L,
+            0xE012113002102821L, 0x0000208430081000L, 0x0000003402280440L, 0x0080008020A80000L,
+            0x1032004025010810L, 0x8000099009820000L, 0x2410034828008C44L, 0x0002587801004000L,
+            0x2002004A08040300L, 0x0000410B01332000L, 0x140082004600D000L, 0x250001A806421200L,
+            0x1800040020042401L, 0x0040000850040820L, 0x2088C85004080260L, 0x0020202131030310L
+    };
+
+    private static final long[] KNIGHT_ATTACKS = new long[ChessBoard.TOTAL_TILES];
+    private static final long[] KING_ATTACKS = new long[ChessBoard.TOTAL_TILES];
+    private static final long[][] PAWN_ATTACKS = new long[2][ChessBoard.TOTAL_TILES]; // indexed by Team ordinal
+    private static final long[] ROOK_MASKS = new long[ChessBoard.TOTAL_TILES];
+    private static final int[] ROOK_SHIFTS = new int[ChessBoard.TOTAL_TILES];
+    private static final long[][] ROOK_ATTACKS = new long[ChessBoard.TOTAL_TILES][];
+    private static final long[] BISHOP_MASKS = new long[ChessBoard.TOTAL_TILES];
+    private static final int[] BISHOP_SHIFTS = new int[ChessBoard.TOTAL_TILES];
+    private static final long[][] BISHOP_ATTACKS = new long[ChessBoard.TOTAL_TILES][];
+    // Tiles strictly between two aligned tiles, and whole board line through two aligned tiles (empty if not aligned):
+    private static final long[][] BETWEEN_TILES = new long[ChessBoard.TOTAL_TILES][ChessBoard.TOTAL_TILES];
+    private static final long[][] LINE_TILES = new long[ChessBoard.TOTAL_TILES][ChessBoard.TOTAL_TILES];
+
+    static {
+        for (int coordinate = 0; coordinate < ChessBoard.TOTAL_TILES; coordinate++) {
+            KNIGHT_ATTACKS[coordinate] = stepAttacks(coordinate, KNIGHT_STEPS);
+            KING_ATTACKS[coordinate] = stepAttacks(coordinate, KING_STEPS);
+            PAWN_ATTACKS[Team.WHITE.ordinal()][coordinate] = stepAttacks(coordinate, WHITE_PAWN_STEPS);
+            PAWN_ATTACKS[Team.BLACK.ordinal()][coordinate] = stepAttacks(coordinate, BLACK_PAWN_STEPS);
+            initMagicTable(coordinate, ROOK_DIRECTIONS, ROOK_MAGICS, ROOK_MASKS, ROOK_SHIFTS, ROOK_ATTACKS);
+            initMagicTable(coordinate, BISHOP_DIRECTIONS, BISHOP_MAGICS, BISHOP_MASKS, BISHOP_SHIFTS, BISHOP_ATTACKS);
+        }
+        for (int from = 0; from < ChessBoard.TOTAL_TILES; from++) {
+            for (int to = 0; to < ChessBoard.TOTAL_TILES; to++) {
+                initLineTables(from, to);
+            }
+        }
+    }
+
+    private AttackTables() {
+        throw new RuntimeException("ERROR: Not instantiable");
+    }
+
+    // knightAttacks(coordinate) returns all the tiles attacked by a Knight on the given tile.
+    public static long knightAttacks(final int coordinate) {
+        return KNIGHT_ATTACKS[coordinate];
+    }
+
+    // kingAttacks(coordinate) returns all the tiles attacked by a King on the given tile.
+    public static long kingAttacks(final int coordinate) {
+        return KING_ATTACKS[coordinate];
+    }
+
+    // pawnAttacks(team, coordinate) returns the (diagonal) tiles attacked by a Pawn of the given team on the given tile.
+    public static long pawnAttacks(final Team team, final int coordinate) {
+        return PAWN_ATTACKS[team.ordinal()][coordinate];
+    }
+
+    // rookAttacks(coordinate, occupancy) returns all the tiles attacked by a Rook on the given tile, given the mask of
+    //  all the occupied tiles of the board. The first blocker of each direction is included in the attack set.
+    public static long rookAttacks(final int coordinate, final long occupancy) {
+        return ROOK_ATTACKS[coordinate][(int) (((occupancy & ROOK_MASKS[coordinate]) * ROOK_MAGICS[coordinate])
+                >>> ROOK_SHIFTS[coordinate])];
+    }
+
+    // bishopAttacks(coordinate, occupancy) returns all the tiles attacked by a Bishop on the given tile, given the mask
+    //  of all the occupied tiles of the board. The first blocker of each direction is included in the attack set.
+    public static long bishopAttacks(final int coordinate, final long occupancy) {
+        return BISHOP_ATTACKS[coordinate][(int) (((occupancy & BISHOP_MASKS[coordinate]) * BISHOP_MAGICS[coordinate])
+                >>> BISHOP_SHIFTS[coordinate])];
+    }
+
+    // queenAttacks(coordinate, occupancy) returns all the tiles attacked by a Queen on the given tile, given the mask of
+    //  all the occupied tiles of the board.
+    public static long queenAttacks(final int coordinate, final long occupancy) {
+        return rookAttacks(coordinate, occupancy) | bishopAttacks(coordinate, occupancy);
+    }
+
+    // betweenTiles(from, to) returns the tiles strictly between the two given tiles if they share a row, a column or a
+    //  diagonal, or an empty mask otherwise.
+    public static long betweenTiles(final int from, final int to) {
+        return BETWEEN_TILES[from][to];
+    }
+
+    // lineTiles(from, to) returns all the tiles of the board line (row, column or diagonal) going through the two given
+    //  tiles, both included, or an empty mask if they are not aligned.
+    public static long lineTiles(final int from, final int to) {
+        return LINE_TILES[from][to];
+    }
+
+    // initLineTables(from, to) fills the between and line entries of the two given tiles, using the slider attacks of
+    //  each tile on an empty board.
+    private static void initLineTables(final int from, final int to) {
+        if (from == to) {
+            return;
+        }
+        final long fromMask = BitBoard.tileMask(from);
+        final long toMask = BitBoard.tileMask(to);
+        if ((rookAttacks(from, 0L) & toMask) != 0L) {
+            BETWEEN_TILES[from][to] = rookAttacks(from, toMask) & rookAttacks(to, fromMask);
+            LINE_TILES[from][to] = (rookAttacks(from, 0L) & rookAttacks(to, 0L)) | fromMask | toMask;
+        }
+        else if ((bishopAttacks(from, 0L) & toMask) != 0L) {
+            BETWEEN_TILES[from][to] = bishopAttacks(from, toMask) & bishopAttacks(to, fromMask);
+            LINE_TILES[from][to] = (bishopAttacks(from, 0L) & bishopAttacks(to, 0L)) | fromMask | toMask;
+        }
+    }
+
+    // initMagicTable() fills the attack table of the slider moving in the given directions from the given tile with the
+    //  attack set of every possible relevant occupancy, indexed through the magic number of that tile.
+    private static void initMagicTable(final int coordinate, final int[][] directions, final long[] magics,
+                                       final long[] masks, final int[] shifts, final long[][] attacks) {
+        final long mask = relevantOccupancy(coordinate, directions);
+        final int bits = Long.bitCount(mask);
+        final int shift = Long.SIZE - bits;
+        final long[] table = new long[1 << bits];
+        final boolean[] isFilled = new boolean[table.length];
+        long subset = 0L;
+        // walking every subset of the mask (carry-rippler), starting and ending with the empty subset:
+        do {
+            final int index = (int) ((subset * magics[coordinate]) >>> shift);
+            final long subsetAttacks = slidingAttacks(coordinate, subset, directions);
+            // two occupancies can only share an entry if they produce the same attack set:
+            if (isFilled[index] && table[index] != subsetAttacks) {
+                throw new RuntimeException("INVALID MAGIC NUMBER ON TILE " + coordinate + "!");
+            }
+            table[index] = subsetAttacks;
+            isFilled[index] = true;
+            subset = (subset - mask) & mask;
+        } while (subset != 0L);
+        masks[coordinate] = mask;
+        shifts[coordinate] = shift;
+        attacks[coordinate] = table;
+    }
+
+    // stepAttacks(coordinate, steps) returns all the tiles reached by a single one of the given steps from the given
+    //  tile, leaving out the steps that would fall off the board.
+    private static long stepAttacks(final int coordinate, final int[][] steps) {
+        long attacks = 0L;
+        for (final int[] step : steps) {
+            final int row = (coordinate >>> 3) + step[0];
+            final int column = (coordinate & 7) + step[1];
+            if (isOnBoard(row, column)) {
+                attacks |= BitBoard.tileMask(row * 8 + column);
+            }
+        }
+        return attacks;
+    }
+
+    // relevantOccupancy(coordinate, directions) returns the tiles whose occupancy changes the attack set of a slider
+    //  on the given tile: every tile of its rays except the last one of each ray (the board edge).
+    private static long relevantOccupancy(final int coordinate, final int[][] directions) {
+        long mask = 0L;
+        for (final int[] direction : directions) {
+            int row = (coordinate >>> 3) + direction[0];
+            int column = (coordinate & 7) + direction[1];
+            while (isOnBoard(row + direction[0], column + direction[1])) {
+                mask |= BitBoard.tileMask(row * 8 + column);
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    // slidingAttacks(coordinate, occupancy, directions) walks each ray from the given tile until it leaves the board
+    //  or hits an occupied tile, and returns all the tiles walked.
+    private static long slidingAttacks(final int coordinate, final long occupancy, final int[][] directions) {
+        long attacks = 0L;
+        for (final int[] direction : directions) {
+            int row = (coordinate >>> 3) + direction[0];
+            int column = (coordinate & 7) + direction[1];
+            while (isOnBoard(row, column)) {
+                final long tile = BitBoard.tileMask(row * 8 + column);
+                attacks |= tile;
+                if ((occupancy & tile) != 0L) {
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    // isOnBoard(row, column) checks if the given row and column are both inside the 8x8 chess board.
+    private static boolean isOnBoard(final int row, final int column) {
+        return row >= 0 && row < 8 && column >= 0 && column < 8;
+    }
+}
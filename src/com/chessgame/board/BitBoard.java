@@ -0,0 +1,177 @@
+package com.chessgame.board;
+
+import com.chessgame.pieces.ChessPiece.pieceType;
+import com.chessgame.player.Team;
+
+import java.util.Arrays;
+
+// A BitBoard holds the position of every piece on the chess board as 64-bit masks: one long per piece type and team,
+//  plus the occupancy masks of each team and of the whole board. Bit i of a mask stands for the tile with coordinate i
+//  (same tile indexing as ChessBoard, 0 is the top left tile on the Black side and 63 the bottom right tile on the
+//  White side).
+public final class BitBoard {
+    public static final int PIECE_TYPES = pieceType.values().length;
+    public static final long EMPTY = 0L;
+
+    private final long[] pieceBoards; // one mask per (team, piece type), see boardIndex()
+    private final long[] teamOccupancy; // one mask per team
+    private long occupancy; // all occupied tiles
+
+    BitBoard() {
+        this.pieceBoards = new long[2 * PIECE_TYPES];
+        this.teamOccupancy = new long[2];
+        this.occupancy = EMPTY;
+    }
+
+    BitBoard(final BitBoard other) {
+        this.pieceBoards = other.pieceBoards.clone();
+        this.teamOccupancy = other.teamOccupancy.clone();
+        this.occupancy = other.occupancy;
+    }
+
+    // boardIndex(team, type) returns the index of the mask holding the pieces of the given type and team.
+    public static int boardIndex(final Team team, final pieceType type) {
+        return team.ordinal() * PIECE_TYPES + type.ordinal();
+    }
+
+    // tileMask(coordinate) returns the mask with only the bit of the given tile coordinate set.
+    public static long tileMask(final int coordinate) {
+        return 1L << coordinate;
+    }
+
+    // firstTile(mask) returns the lowest tile coordinate set in the given (non empty) mask.
+    public static int firstTile(final long mask) {
+        return Long.numberOfTrailingZeros(mask);
+    }
+
+    // tileCount(mask) returns the number of tiles set in the given mask.
+    public static int tileCount(final long mask) {
+        return Long.bitCount(mask);
+    }
+
+    // getPieces(team, type) returns the mask of all the pieces of the given type owned by the given team.
+    public long getPieces(final Team team, final pieceType type) {
+        return this.pieceBoards[boardIndex(team, type)];
+    }
+
+    // getPieces(index) returns the mask at the given board index (see boardIndex()).
+    public long getPieces(final int index) {
+        return this.pieceBoards[index];
+    }
+
+    // getTeamOccupancy(team) returns the mask of all the tiles occupied by the given team.
+    public long getTeamOccupancy(final Team team) {
+        return this.teamOccupancy[team.ordinal()];
+    }
+
+    // getOccupancy() returns the mask of all the occupied tiles on the board.
+    public long getOccupancy() {
+        return this.occupancy;
+    }
+
+    // isTileOccupied(coordinate) checks if there is a piece on the tile with the given coordinate.
+    public boolean isTileOccupied(final int coordinate) {
+        return (this.occupancy & tileMask(coordinate)) != EMPTY;
+    }
+
+    // putPiece(coordinate, team, type) places a piece of the given type and team on the given (empty) tile.
+    void putPiece(final int coordinate, final Team team, final pieceType type) {
+        final long mask = tileMask(coordinate);
+        this.pieceBoards[boardIndex(team, type)] |= mask;
+        this.teamOccupancy[team.ordinal()] |= mask;
+        this.occupancy |= mask;
+    }
+
+    // removePiece(coordinate, team, type) removes the piece of the given type and team from the given tile.
+    void removePiece(final int coordinate, final Team team, final pieceType type) {
+        removePiece(coordinate, boardIndex(team, type));
+    }
+
+    // putPiece(coordinate, index) places a piece of the given board index (see boardIndex()) on the given (empty) tile.
+    void putPiece(final int coordinate, final int index) {
+        final long mask = tileMask(coordinate);
+        this.pieceBoards[index] |= mask;
+        this.teamOccupancy[index / PIECE_TYPES] |= mask;
+        this.occupancy |= mask;
+    }
+
+    // removePiece(coordinate, index) removes the piece of the given board index (see boardIndex()) from the given tile.
+    void removePiece(final int coordinate, final int index) {
+        final long mask = ~tileMask(coordinate);
+        this.pieceBoards[index] &= mask;
+        this.teamOccupancy[index / PIECE_TYPES] &= mask;
+        this.occupancy &= mask;
+    }
+
+    // isTileAttacked(coordinate, byTeam) checks if any piece of the given team attacks the tile with the given
+    //  coordinate.
+    public boolean isTileAttacked(final int coordinate, final Team byTeam) {
+        return isTileAttacked(coordinate, byTeam, this.occupancy);
+    }
+
+    // isTileAttacked(coordinate, byTeam, occupancy) checks if any piece of the given team attacks the tile with the
+    //  given coordinate on the board where only the tiles of the given occupancy mask are occupied (used to find out if
+    //  a tile would still be attacked after some pieces moved away). It works outward from the tile, like
+    //  getAttackers(), but stops at the first attacker type found.
+    public boolean isTileAttacked(final int coordinate, final Team byTeam, final long occupancy) {
+        return isTileAttacked(this.pieceBoards, 0, coordinate, byTeam, occupancy);
+    }
+
+    // isTileAttacked(pieceBoards, offset, coordinate, byTeam, occupancy) checks the same from piece masks stored from
+    //  the given offset of an array, one per board index (see boardIndex()), like the masks of a packed board (see
+    //  SearchBoard.pack()).
+    public static boolean isTileAttacked(final long[] pieceBoards, final int offset, final int coordinate,
+                                         final Team byTeam, final long occupancy) {
+        final int attackerIndex = offset + byTeam.ordinal() * PIECE_TYPES;
+        final long queens = pieceBoards[attackerIndex + pieceType.QUEEN.ordinal()];
+        return (AttackTables.pawnAttacks(byTeam.getEnemyTeam(), coordinate) & occupancy &
+                pieceBoards[attackerIndex + pieceType.PAWN.ordinal()]) != EMPTY ||
+                (AttackTables.knightAttacks(coordinate) & occupancy &
+                        pieceBoards[attackerIndex + pieceType.KNIGHT.ordinal()]) != EMPTY ||
+                (AttackTables.kingAttacks(coordinate) & occupancy &
+                        pieceBoards[attackerIndex + pieceType.KING.ordinal()]) != EMPTY ||
+                (AttackTables.bishopAttacks(coordinate, occupancy) & occupancy &
+                        (pieceBoards[attackerIndex + pieceType.BISHOP.ordinal()] | queens)) != EMPTY ||
+                (AttackTables.rookAttacks(coordinate, occupancy) & occupancy &
+                        (pieceBoards[attackerIndex + pieceType.ROOK.ordinal()] | queens)) != EMPTY;
+    }
+
+    // getAttackers(coordinate, byTeam, occupancy) returns the tiles of the pieces of the given team that attack the tile
+    //  with the given coordinate, where only the tiles of the given occupancy mask are occupied. It works outward from
+    //  the tile: a tile is attacked by a piece of a given type if a piece of that type standing on the tile would
+    //  attack the attacker's tile.
+    public long getAttackers(final int coordinate, final Team byTeam, final long occupancy) {
+        final int attackerIndex = byTeam.ordinal() * PIECE_TYPES;
+        final long queens = this.pieceBoards[attackerIndex + pieceType.QUEEN.ordinal()];
+        return ((AttackTables.pawnAttacks(byTeam.getEnemyTeam(), coordinate) &
+                this.pieceBoards[attackerIndex + pieceType.PAWN.ordinal()]) |
+                (AttackTables.knightAttacks(coordinate) & this.pieceBoards[attackerIndex + pieceType.KNIGHT.ordinal()]) |
+                (AttackTables.kingAttacks(coordinate) & this.pieceBoards[attackerIndex + pieceType.KING.ordinal()]) |
+                (AttackTables.bishopAttacks(coordinate, occupancy) &
+                        (this.pieceBoards[attackerIndex + pieceType.BISHOP.ordinal()] | queens)) |
+                (AttackTables.rookAttacks(coordinate, occupancy) &
+                        (this.pieceBoards[attackerIndex + pieceType.ROOK.ordinal()] | queens))) & occupancy;
+    }
+
+    // Two BitBoards are equal if they hold the same pieces on the same tiles.
+    @Override
+    public boolean equals(final Object compared) {
+        if (this == compared) {
+            return true;
+        }
+        if (!(compared instanceof BitBoard)) {
+            return false;
+        }
+        return Arrays.equals(this.pieceBoards, ((BitBoard) compared).pieceBoards);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.pieceBoards);
+    }
+
+    // getKingTile(team) returns the tile coordinate of the given team's King.
+    public int getKingTile(final Team team) {
+        return firstTile(this.pieceBoards[boardIndex(team, pieceType.KING)]);
+    }
+}
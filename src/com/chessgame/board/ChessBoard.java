@@ -30,29 +30,53 @@ public class ChessBoard {
     public static final boolean[] SEVENTH_ROW = createRow(48);
     public static final boolean[] LAST_ROW = createRow(56);
 
-    private final List<ChessTile> board;
+    private final BitBoard bitBoard; // piece masks of the current board (see BitBoard)
+    private final ChessPiece[] pieces; // chess piece on each tile coordinate (null for an empty tile)
     private final Collection<ChessPiece> whitePieces;
     private final Collection<ChessPiece> blackPieces;
     private final WhitePlayer whitePlayer;
     private final BlackPlayer blackPlayer;
     private final Player currentMovingPlayer;
     private final Pawn enPassantPawn;
+    private final int castlingRights; // castling moves still available (see SearchBoard.WHITE_KING_SIDE...)
+    private final long zobristKey; // hash key of the position (see Zobrist)
+    // moves of each team's pieces, computed on first access (see getPiecesMoves()):
+    private volatile Collection<Move> whitePiecesMoves;
+    private volatile Collection<Move> blackPiecesMoves;
 
+    // Building a ChessBoard only places the pieces. The legal moves, check status and castling moves of both players are
+    //  computed on first access, since most boards built by a search are never looked at beyond their pieces.
     private ChessBoard(final Builder builder) {
-        this.board = createBoard(builder);
-        this.whitePieces = onBoardPieces(this.board, Team.WHITE);
-        this.blackPieces = onBoardPieces(this.board, Team.BLACK);
+        this.bitBoard = new BitBoard(builder.bitBoard);
+        this.pieces = builder.piecesPosition.clone();
+        this.whitePieces = onBoardPieces(Team.WHITE);
+        this.blackPieces = onBoardPieces(Team.BLACK);
         this.enPassantPawn = builder.enPassantPawn;
-        final Collection<Move> allWhiteLegalMoves = allLegalMoves(this.whitePieces);
-        final Collection<Move> allBlackLegalMoves = allLegalMoves(this.blackPieces);
-        this.whitePlayer = new WhitePlayer(this, allWhiteLegalMoves, allBlackLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, allWhiteLegalMoves, allBlackLegalMoves);
+        this.castlingRights = castlingRights();
+        // a board built by a move gets the key updated by that move, any other board is hashed from scratch. The castling
+        //  rights are only known now, so they are always added here:
+        final long zobristKey = builder.zobristKey != null ? builder.zobristKey : Zobrist.piecesKey(this.bitBoard) ^
+                Zobrist.moverKey(builder.nextMover) ^
+                (this.enPassantPawn == null ? 0L : Zobrist.enPassantKey(this.enPassantPawn.getPiecePosition()));
+        this.zobristKey = zobristKey ^ Zobrist.castlingKey(this.castlingRights);
+        this.whitePlayer = new WhitePlayer(this);
+        this.blackPlayer = new BlackPlayer(this);
         this.currentMovingPlayer = builder.nextMover.selectPlayer(this.whitePlayer, this.blackPlayer);
     }
 
     // getTile() returns the ChessTile at the given coordinate on the current ChessBoard.
     public ChessTile getTile(final int coordinate) {
-        return board.get(coordinate);
+        return ChessTile.createTile(coordinate, this.pieces[coordinate]);
+    }
+
+    // getPiece(coordinate) returns the chess piece at the given coordinate, or null if the tile is empty.
+    public ChessPiece getPiece(final int coordinate) {
+        return this.pieces[coordinate];
+    }
+
+    // getBitBoard() returns the piece masks of the current ChessBoard.
+    public BitBoard getBitBoard() {
+        return this.bitBoard;
     }
 
     // getBlackPieces() returns the collection of all the black pieces currently on the board.
@@ -85,11 +109,72 @@ public class ChessBoard {
         return this.enPassantPawn;
     }
 
+    // getCastlingRights() returns the castling moves still available to both teams (see SearchBoard.WHITE_KING_SIDE...).
+    //  A castling move stays available as long as both the King and the Rook have never moved.
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    // getZobristKey() returns the 64-bit hash key of the current position: pieces, moving team, castling rights and en
+    //  passant column (see Zobrist).
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    // isTileAttacked(coordinate, byTeam) checks if any piece of the given team attacks the tile with the given
+    //  coordinate, working outward from the tile with the precomputed attack tables (see BitBoard.isTileAttacked()).
+    public boolean isTileAttacked(final int coordinate, final Team byTeam) {
+        return this.bitBoard.isTileAttacked(coordinate, byTeam);
+    }
+
+    // getPiecesMoves(team) returns the moves of all the pieces of the given team (castling moves excluded), computed
+    //  the first time they are asked for.
+    public Collection<Move> getPiecesMoves(final Team team) {
+        if (team.isWhite()) {
+            Collection<Move> moves = this.whitePiecesMoves;
+            if (moves == null) {
+                moves = allLegalMoves(this.whitePieces);
+                this.whitePiecesMoves = moves;
+            }
+            return moves;
+        }
+        Collection<Move> moves = this.blackPiecesMoves;
+        if (moves == null) {
+            moves = allLegalMoves(this.blackPieces);
+            this.blackPiecesMoves = moves;
+        }
+        return moves;
+    }
+
     // getAllLegalMoves() returns all legal moves for all players on the current board.
     public Iterable<Move> getAllLegalMoves() {
         return Iterables.unmodifiableIterable(Iterables.concat(this.whitePlayer.getLegalMoves(), this.blackPlayer.getLegalMoves()));
     }
 
+    // Two ChessBoards are equal if they hold the same position: same pieces on the same tiles, same moving team, same
+    //  castling rights and same en passant column.
+    @Override
+    public boolean equals(final Object compared) {
+        if (this == compared) {
+            return true;
+        }
+        if (!(compared instanceof ChessBoard)) {
+            return false;
+        }
+        final ChessBoard comparedBoard = (ChessBoard) compared;
+        // different keys always mean different positions, so the full comparison is only done on a key match:
+        return this.zobristKey == comparedBoard.zobristKey &&
+                this.currentMovingPlayer.getTeam() == comparedBoard.currentMovingPlayer.getTeam() &&
+                this.castlingRights == comparedBoard.castlingRights &&
+                enPassantColumn() == comparedBoard.enPassantColumn() &&
+                this.bitBoard.equals(comparedBoard.bitBoard);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(this.zobristKey);
+    }
+
     // isValidTileCoordinate(coordinate) checks if the parameter coordinate is a valid chess board coordinate.
     public static boolean isValidTileCoordinate(final int coordinate) {
         // Tile coordinates (indexes) goes from 0 to 63, with a total of 64 tiles
@@ -129,33 +214,43 @@ public class ChessBoard {
         return ImmutableList.copyOf(legalMoves);
     }
 
-    // onBoardPieces(curBoard, team) returns all the current chess pieces present on the chess board owned by the
-    //  selected team.
-    private static Collection<ChessPiece> onBoardPieces(final List<ChessTile> curBoard, final Team team) {
-        final List<ChessPiece> pieces = new ArrayList<>(); // current pieces on the chess board of the selected team
-        // checking all the tiles:
-        for (final ChessTile tile : curBoard) {
-            if(tile.isTileOccupied()) {
-                final ChessPiece curPiece = tile.getPiece();
-                // if the current tile is occupied AND it is occupied by a piece from the selected team:
-                if (curPiece.getPieceTeam() == team) {
-                    pieces.add(curPiece);
-                }
-            }
+    // enPassantColumn() returns the column of the en passant pawn, or -1 if there is none.
+    private int enPassantColumn() {
+        return this.enPassantPawn == null ? -1 : this.enPassantPawn.getPiecePosition() & 7;
+    }
+
+    // castlingRights() returns the castling rights of the current board, from the King and Rooks that are still on
+    //  their original tiles and have never moved.
+    private int castlingRights() {
+        int rights = 0;
+        if (isUnmoved(60, Team.WHITE, ChessPiece.pieceType.KING)) {
+            rights |= isUnmoved(63, Team.WHITE, ChessPiece.pieceType.ROOK) ? SearchBoard.WHITE_KING_SIDE : 0;
+            rights |= isUnmoved(56, Team.WHITE, ChessPiece.pieceType.ROOK) ? SearchBoard.WHITE_QUEEN_SIDE : 0;
         }
-        return ImmutableList.copyOf(pieces);
+        if (isUnmoved(4, Team.BLACK, ChessPiece.pieceType.KING)) {
+            rights |= isUnmoved(7, Team.BLACK, ChessPiece.pieceType.ROOK) ? SearchBoard.BLACK_KING_SIDE : 0;
+            rights |= isUnmoved(0, Team.BLACK, ChessPiece.pieceType.ROOK) ? SearchBoard.BLACK_QUEEN_SIDE : 0;
+        }
+        return rights;
     }
 
-    // createBoard() creates a new chess board with 64 tiles (list of 64 tiles).
-    private static List<ChessTile> createBoard(final Builder builder) {
-        final ChessTile[] tiles = new ChessTile[TOTAL_TILES];
-        // process of creating all tiles of the current state of game:
-        for (int i = 0; i < TOTAL_TILES; i++) {
-            // PROCESS: get the piece from piecesPosition associated with current tile index and build a tile from it.
-            //  Repeat for each possible tile on the board.
-            tiles[i] = ChessTile.createTile(i, builder.piecesPosition.get(i));
+    // isUnmoved(coordinate, team, type) checks if the given tile holds a piece of the given team and type that has
+    //  never moved.
+    private boolean isUnmoved(final int coordinate, final Team team, final ChessPiece.pieceType type) {
+        final ChessPiece piece = this.pieces[coordinate];
+        return piece != null && piece.getPieceTeam() == team && piece.getPieceType() == type && piece.isFirstMove();
+    }
+
+    // onBoardPieces(team) returns all the current chess pieces present on the chess board owned by the selected team,
+    //  in tile coordinate order.
+    private Collection<ChessPiece> onBoardPieces(final Team team) {
+        final ChessPiece[] teamPieces = new ChessPiece[BitBoard.tileCount(this.bitBoard.getTeamOccupancy(team))];
+        int index = 0;
+        // walking each occupied tile of the selected team, from the lowest coordinate to the highest:
+        for (long tiles = this.bitBoard.getTeamOccupancy(team); tiles != BitBoard.EMPTY; tiles &= tiles - 1) {
+            teamPieces[index++] = this.pieces[BitBoard.firstTile(tiles)];
         }
-        return ImmutableList.copyOf(tiles);
+        return ImmutableList.copyOf(teamPieces);
     }
 
     // gameInitialize() creates a new initialized chess board (game reset status) with 64 tiles with white team moving
@@ -203,12 +298,15 @@ public class ChessBoard {
 
     // A chess board object builder:
     public static class Builder {
-        Map<Integer, ChessPiece> piecesPosition; // all chess pieces coordinate on the current board
+        final ChessPiece[] piecesPosition; // all chess pieces coordinate on the current board
+        final BitBoard bitBoard; // piece masks matching piecesPosition
         Team nextMover; // next moving team
         Pawn enPassantPawn;
+        Long zobristKey; // key of the new board without its castling rights, or null to hash the board from scratch
 
         public Builder() {
-            this.piecesPosition = new HashMap<>();
+            this.piecesPosition = new ChessPiece[TOTAL_TILES];
+            this.bitBoard = new BitBoard();
         }
         // build() creates and returns a new ChessBoard object.
         public ChessBoard build() {
@@ -216,7 +314,14 @@ public class ChessBoard {
         }
         // putPiece(piece) puts a piece on the chess board.
         public void putPiece(final ChessPiece piece) {
-            this.piecesPosition.put(piece.getPiecePosition(), piece);
+            final int coordinate = piece.getPiecePosition();
+            final ChessPiece replacedPiece = this.piecesPosition[coordinate];
+            // a piece already placed on the same tile is replaced by the new one:
+            if (replacedPiece != null) {
+                this.bitBoard.removePiece(coordinate, replacedPiece.getPieceTeam(), replacedPiece.getPieceType());
+            }
+            this.piecesPosition[coordinate] = piece;
+            this.bitBoard.putPiece(coordinate, piece.getPieceTeam(), piece.getPieceType());
         }
         // setMover() sets a new Team that will move next (White or Black).
         public void setMover(final Team team) {
@@ -226,5 +331,10 @@ public class ChessBoard {
         public void setEnPassant(Pawn movingPawn) {
             this.enPassantPawn = movingPawn;
         }
+        // setZobristKey(key) sets the hash key of the new board, updated incrementally from the board before the move:
+        //  pieces, moving team and en passant column, but NOT the castling rights, which are added by the new board.
+        public void setZobristKey(final long key) {
+            this.zobristKey = key;
+        }
     }
 }
@@ -0,0 +1,226 @@
+package com.chessgame.board;
+
+import com.chessgame.movement.PackedMove;
+import com.chessgame.pieces.ChessPiece.pieceType;
+import com.chessgame.player.Team;
+
+// MoveGenerator generates the packed moves (see PackedMove) of a SearchBoard straight from its piece masks and the
+//  precomputed attack tables. Moves come out in the same order as a Player's legal moves on the equivalent ChessBoard:
+//  piece by piece in tile coordinate order, then the castling moves.
+// The strictly legal moves are generated without making any of them: the pieces pinned to their King and the tiles
+//  that stop a check are computed first, and every move that would leave the King in check is simply never written.
+public final class MoveGenerator {
+    public static final int MAX_MOVES = 256; // upper bound on the number of moves of any chess position
+    private static final long ALL_TILES = ~BitBoard.EMPTY;
+
+    private MoveGenerator() {
+        throw new RuntimeException("ERROR: Not instantiable");
+    }
+
+    // generateMoves(board, team, moves, start) writes all the moves of the given team's pieces into the given array,
+    //  starting at index start, and returns the index following the last move written. The moves follow the piece
+    //  movement rules but may still leave the team's own King in check (SearchBoard.make() reports those).
+    public static int generateMoves(final SearchBoard board, final Team team, final int[] moves, final int start) {
+        return generateMoves(board, team, moves, start, false);
+    }
+
+    // generateLegalMoves(board, team, moves, start) writes the moves of the given team's pieces that do not leave its
+    //  own King in check into the given array, starting at index start, and returns the index following the last move
+    //  written. The moves keep the same order as with generateMoves().
+    public static int generateLegalMoves(final SearchBoard board, final Team team, final int[] moves, final int start) {
+        return generateMoves(board, team, moves, start, true);
+    }
+
+    // hasLegalMove(board, team, moves, start) checks if the given team has at least one move that does not leave its
+    //  King in check: a team with no legal move is in check mate if it is in check, and in stale mate otherwise. The
+    //  given array is used from index start as scratch space for the moves.
+    public static boolean hasLegalMove(final SearchBoard board, final Team team, final int[] moves, final int start) {
+        return generateLegalMoves(board, team, moves, start) != start;
+    }
+
+    // generateMoves(board, team, moves, start, isLegal) writes the moves of the given team's pieces, leaving out the
+    //  ones that would leave the King in check if isLegal is true.
+    private static int generateMoves(final SearchBoard board, final Team team, final int[] moves, final int start,
+                                     final boolean isLegal) {
+        final BitBoard bitBoard = board.getBitBoard();
+        final Team enemy = team.getEnemyTeam();
+        final long ownPieces = bitBoard.getTeamOccupancy(team);
+        final long occupancy = bitBoard.getOccupancy();
+        int kingCrd = SearchBoard.NO_TILE;
+        long checkMask = ALL_TILES; // tiles the pieces other than the King can move to
+        long pinned = BitBoard.EMPTY; // pieces that can only move along the line between their King and the attacker
+        if (isLegal) {
+            kingCrd = bitBoard.getKingTile(team);
+            final long checkers = bitBoard.getAttackers(kingCrd, enemy, occupancy);
+            if (BitBoard.tileCount(checkers) > 1) {
+                // only the King can get out of a double check:
+                checkMask = BitBoard.EMPTY;
+            }
+            else if (checkers != BitBoard.EMPTY) {
+                // a single check is stopped by taking the attacker or by moving in between it and the King:
+                checkMask = checkers | AttackTables.betweenTiles(kingCrd, BitBoard.firstTile(checkers));
+            }
+            pinned = pinnedPieces(bitBoard, team, kingCrd);
+        }
+        int count = start;
+        for (long tiles = ownPieces; tiles != BitBoard.EMPTY; tiles &= tiles - 1) {
+            final int curCrd = BitBoard.firstTile(tiles);
+            final int piece = board.getPieceIndex(curCrd);
+            final int type = piece % BitBoard.PIECE_TYPES;
+            long allowedTiles = checkMask;
+            if ((pinned & BitBoard.tileMask(curCrd)) != BitBoard.EMPTY) {
+                allowedTiles &= AttackTables.lineTiles(kingCrd, curCrd);
+            }
+            if (type == pieceType.PAWN.ordinal()) {
+                count = pawnMoves(board, team, curCrd, allowedTiles, kingCrd, moves, count);
+                continue;
+            }
+            final long attacks;
+            if (type == pieceType.KNIGHT.ordinal()) {
+                attacks = AttackTables.knightAttacks(curCrd) & allowedTiles;
+            }
+            else if (type == pieceType.BISHOP.ordinal()) {
+                attacks = AttackTables.bishopAttacks(curCrd, occupancy) & allowedTiles;
+            }
+            else if (type == pieceType.ROOK.ordinal()) {
+                attacks = AttackTables.rookAttacks(curCrd, occupancy) & allowedTiles;
+            }
+            else if (type == pieceType.QUEEN.ordinal()) {
+                attacks = AttackTables.queenAttacks(curCrd, occupancy) & allowedTiles;
+            }
+            else {
+                attacks = AttackTables.kingAttacks(curCrd);
+            }
+            for (long targets = attacks & ~ownPieces; targets != BitBoard.EMPTY; targets &= targets - 1) {
+                final int destCrd = BitBoard.firstTile(targets);
+                // the King cannot move to an attacked tile (its own tile is left empty so that it cannot hide behind
+                //  itself from a slider checking it):
+                if (isLegal && type == pieceType.KING.ordinal() &&
+                        bitBoard.isTileAttacked(destCrd, enemy, occupancy ^ BitBoard.tileMask(curCrd))) {
+                    continue;
+                }
+                final int capturedPiece = board.getPieceIndex(destCrd); // NO_PIECE on an empty tile
+                moves[count++] = PackedMove.create(curCrd, destCrd,
+                        capturedPiece == SearchBoard.NO_PIECE ? PackedMove.QUIET : PackedMove.CAPTURE, piece,
+                        capturedPiece, PackedMove.NO_PIECE);
+            }
+        }
+        // castling is never generated out of check, nor across or onto an attacked tile, so it is always legal:
+        return castlingMoves(board, team, moves, count);
+    }
+
+    // pinnedPieces(bitBoard, team, kingCrd) returns the pieces of the given team that are the only piece between their
+    //  King and an enemy slider attacking along that line.
+    private static long pinnedPieces(final BitBoard bitBoard, final Team team, final int kingCrd) {
+        final Team enemy = team.getEnemyTeam();
+        final long queens = bitBoard.getPieces(enemy, pieceType.QUEEN);
+        final long occupancy = bitBoard.getOccupancy();
+        // enemy sliders that would attack the King on an empty board:
+        final long attackers = (AttackTables.rookAttacks(kingCrd, BitBoard.EMPTY) &
+                (bitBoard.getPieces(enemy, pieceType.ROOK) | queens)) |
+                (AttackTables.bishopAttacks(kingCrd, BitBoard.EMPTY) &
+                        (bitBoard.getPieces(enemy, pieceType.BISHOP) | queens));
+        long pinned = BitBoard.EMPTY;
+        for (long tiles = attackers; tiles != BitBoard.EMPTY; tiles &= tiles - 1) {
+            final long blockers = AttackTables.betweenTiles(kingCrd, BitBoard.firstTile(tiles)) & occupancy;
+            if (BitBoard.tileCount(blockers) == 1) {
+                pinned |= blockers & bitBoard.getTeamOccupancy(team);
+            }
+        }
+        return pinned;
+    }
+
+    // pawnMoves() writes the moves of the given team's Pawn on the given tile (see Pawn.allowedMoves()) that end on one
+    //  of the allowed tiles. kingCrd is the tile of the team's King when only the legal moves are generated, or NO_TILE.
+    private static int pawnMoves(final SearchBoard board, final Team team, final int curCrd, final long allowedTiles,
+                                 final int kingCrd, final int[] moves, final int start) {
+        final BitBoard bitBoard = board.getBitBoard();
+        final int direction = 8 * team.getDirection();
+        final int oneFrontTile = curCrd + direction;
+        final int pawn = BitBoard.boardIndex(team, pieceType.PAWN);
+        final int queen = BitBoard.boardIndex(team, pieceType.QUEEN); // pawns are always promoted to a Queen
+        int count = start;
+        if (ChessBoard.isValidTileCoordinate(oneFrontTile) && !bitBoard.isTileOccupied(oneFrontTile)) {
+            // (a one tile move that is not allowed still lets the Pawn move two tiles forward, e.g. to stop a check)
+            final boolean isAllowed = (allowedTiles & BitBoard.tileMask(oneFrontTile)) != BitBoard.EMPTY;
+            if (isAllowed && team.isPromotionTile(oneFrontTile)) {
+                moves[count++] = PackedMove.create(curCrd, oneFrontTile, PackedMove.PROMOTION, pawn,
+                        PackedMove.NO_PIECE, queen);
+            }
+            else if (isAllowed) {
+                moves[count++] = PackedMove.create(curCrd, oneFrontTile, PackedMove.QUIET, pawn,
+                        PackedMove.NO_PIECE, PackedMove.NO_PIECE);
+            }
+            final int twoFrontTile = oneFrontTile + direction;
+            // a Pawn still on its original row can also move two tiles forward:
+            if (((ChessBoard.SECOND_ROW[curCrd] && team.isBlack()) || (ChessBoard.SEVENTH_ROW[curCrd] && team.isWhite()))
+                    && !bitBoard.isTileOccupied(twoFrontTile) &&
+                    (allowedTiles & BitBoard.tileMask(twoFrontTile)) != BitBoard.EMPTY) {
+                moves[count++] = PackedMove.create(curCrd, twoFrontTile, PackedMove.PAWN_DOUBLE, pawn,
+                        PackedMove.NO_PIECE, PackedMove.NO_PIECE);
+            }
+        }
+        final long attacks = AttackTables.pawnAttacks(team, curCrd);
+        for (long targets = attacks & bitBoard.getTeamOccupancy(team.getEnemyTeam()) & allowedTiles;
+             targets != BitBoard.EMPTY; targets &= targets - 1) {
+            final int destCrd = BitBoard.firstTile(targets);
+            if (team.isPromotionTile(destCrd)) {
+                moves[count++] = PackedMove.create(curCrd, destCrd, PackedMove.PROMOTION_CAPTURE, pawn,
+                        board.getPieceIndex(destCrd), queen);
+            }
+            else {
+                moves[count++] = PackedMove.create(curCrd, destCrd, PackedMove.CAPTURE, pawn,
+                        board.getPieceIndex(destCrd), PackedMove.NO_PIECE);
+            }
+        }
+        // only the team moving next can take the pawn that just moved two tiles forward:
+        final int enPassantTile = board.getEnPassantTile();
+        if (enPassantTile != SearchBoard.NO_TILE && team == board.getCurrentMover() &&
+                (attacks & BitBoard.tileMask(enPassantTile)) != BitBoard.EMPTY &&
+                (kingCrd == SearchBoard.NO_TILE || isLegalEnPassant(bitBoard, team, curCrd, enPassantTile, kingCrd))) {
+            moves[count++] = PackedMove.create(curCrd, enPassantTile, PackedMove.EN_PASSANT, pawn,
+                    BitBoard.boardIndex(team.getEnemyTeam(), pieceType.PAWN), PackedMove.NO_PIECE);
+        }
+        return count;
+    }
+
+    // isLegalEnPassant() checks if the given team's King is safe after its Pawn takes en passant. The en passant move
+    //  empties two tiles at once (the Pawn's and the taken Pawn's), so the King is checked on the resulting occupancy
+    //  instead of through the check and pin masks.
+    private static boolean isLegalEnPassant(final BitBoard bitBoard, final Team team, final int curCrd,
+                                            final int enPassantTile, final int kingCrd) {
+        final int takenCrd = enPassantTile - 8 * team.getDirection();
+        final long occupancy = (bitBoard.getOccupancy() ^ BitBoard.tileMask(curCrd) ^ BitBoard.tileMask(takenCrd)) |
+                BitBoard.tileMask(enPassantTile);
+        return !bitBoard.isTileAttacked(kingCrd, team.getEnemyTeam(), occupancy);
+    }
+
+    // castlingMoves() writes the castling moves of the given team (see WhitePlayer/BlackPlayer.calculateCastlingMoves()):
+    //  the King and the Rook have never moved, the tiles between them are empty, the King is not in check, and the
+    //  tiles the King walks over are not attacked by the enemy team.
+    private static int castlingMoves(final SearchBoard board, final Team team, final int[] moves, final int start) {
+        final int kingSide = team.isWhite() ? SearchBoard.WHITE_KING_SIDE : SearchBoard.BLACK_KING_SIDE;
+        final int queenSide = team.isWhite() ? SearchBoard.WHITE_QUEEN_SIDE : SearchBoard.BLACK_QUEEN_SIDE;
+        if ((board.getCastlingRights() & (kingSide | queenSide)) == 0 || board.isKingAttacked(team)) {
+            return start;
+        }
+        final BitBoard bitBoard = board.getBitBoard();
+        final Team enemy = team.getEnemyTeam();
+        final int kingCrd = team.isWhite() ? 60 : 4;
+        final int king = BitBoard.boardIndex(team, pieceType.KING);
+        int count = start;
+        if ((board.getCastlingRights() & kingSide) != 0 && !bitBoard.isTileOccupied(kingCrd + 1) &&
+                !bitBoard.isTileOccupied(kingCrd + 2) && !bitBoard.isTileAttacked(kingCrd + 1, enemy) &&
+                !bitBoard.isTileAttacked(kingCrd + 2, enemy)) {
+            moves[count++] = PackedMove.create(kingCrd, kingCrd + 2, PackedMove.KING_SIDE_CASTLE, king,
+                    PackedMove.NO_PIECE, PackedMove.NO_PIECE);
+        }
+        if ((board.getCastlingRights() & queenSide) != 0 && !bitBoard.isTileOccupied(kingCrd - 1) &&
+                !bitBoard.isTileOccupied(kingCrd - 2) && !bitBoard.isTileOccupied(kingCrd - 3) &&
+                !bitBoard.isTileAttacked(kingCrd - 1, enemy) && !bitBoard.isTileAttacked(kingCrd - 2, enemy)) {
+            moves[count++] = PackedMove.create(kingCrd, kingCrd - 2, PackedMove.QUEEN_SIDE_CASTLE, king,
+                    PackedMove.NO_PIECE, PackedMove.NO_PIECE);
+        }
+        return count;
+    }
+}
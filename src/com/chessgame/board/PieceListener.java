@@ -0,0 +1,13 @@
+package com.chessgame.board;
+
+// A PieceListener is told about every piece placed on or removed from the SearchBoard it listens to (see
+//  SearchBoard.setPieceListener()), moves made and unmade alike, so that it can keep its own view of the board up to
+//  date one piece at a time. It is called once the board itself is up to date.
+public interface PieceListener {
+    // piecePut(index, coordinate) is called when a piece of the given board index (see BitBoard.boardIndex()) is placed
+    //  on the given tile.
+    void piecePut(int index, int coordinate);
+
+    // pieceRemoved(index, coordinate) is called when the piece of the given board index is removed from the given tile.
+    void pieceRemoved(int index, int coordinate);
+}
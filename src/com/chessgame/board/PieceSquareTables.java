@@ -0,0 +1,171 @@
+package com.chessgame.board;
+
+import com.chessgame.pieces.ChessPiece;
+import com.chessgame.player.Team;
+
+// PieceSquareTables holds the points of each piece on each tile: the material points of its type (see ChessPiece),
+//  and a bonus (or malus) for the tile it stands on, which rewards central Knights, advanced Pawns, sheltered Kings...
+// The tile bonus has a middlegame and an endgame value, tapered by the game phase: the material left on the board
+//  other than Pawns and Kings, from MAX_GAME_PHASE on the initial board down to 0 with bare Kings and Pawns. A King
+//  hides in its corner while the Queens are on the board, and walks to the center once they are gone.
+// The tables are written from the White side, with the same tile indexing as ChessBoard (the first row is the Black
+//  side), and mirrored for Black. Black bonuses are negative, so that summing them gives a White minus Black score,
+//  like BoardScore.
+public final class PieceSquareTables {
+    public static final int MAX_GAME_PHASE = 24; // game phase of the initial board
+    private static final int[] PHASE_WEIGHTS = {0, 1, 1, 2, 4, 0}; // game phase of each piece type, Pawn to King
+    private static final ChessPiece.pieceType[] PIECE_TYPES = ChessPiece.pieceType.values();
+
+    private static final int[] PAWN_MIDDLEGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             10,  10,  20,  30,  30,  20,  10,  10,
+              5,   5,  10,  25,  25,  10,   5,   5,
+              0,   0,   0,  20,  20,   0,   0,   0,
+              5,  -5, -10,   0,   0, -10,  -5,   5,
+              5,  10,  10, -20, -20,  10,  10,   5,
+              0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] PAWN_ENDGAME = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+             80,  80,  80,  80,  80,  80,  80,  80,
+             50,  50,  50,  50,  50,  50,  50,  50,
+             30,  30,  30,  30,  30,  30,  30,  30,
+             20,  20,  20,  20,  20,  20,  20,  20,
+             10,  10,  10,  10,  10,  10,  10,  10,
+             10,  10,  10,  10,  10,  10,  10,  10,
+              0,   0,   0,   0,   0,   0,   0,   0};
+    private static final int[] KNIGHT = {
+            -50, -40, -30, -30, -30, -30, -40, -50,
+            -40, -20,   0,   0,   0,   0, -20, -40,
+            -30,   0,  10,  15,  15,  10,   0, -30,
+            -30,   5,  15,  20,  20,  15,   5, -30,
+            -30,   0,  15,  20,  20,  15,   0, -30,
+            -30,   5,  10,  15,  15,  10,   5, -30,
+            -40, -20,   0,   5,   5,   0, -20, -40,
+            -50, -40, -30, -30, -30, -30, -40, -50};
+    private static final int[] BISHOP = {
+            -20, -10, -10, -10, -10, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,  10,  10,   5,   0, -10,
+            -10,   5,   5,  10,  10,   5,   5, -10,
+            -10,   0,  10,  10,  10,  10,   0, -10,
+            -10,  10,  10,  10,  10,  10,  10, -10,
+            -10,   5,   0,   0,   0,   0,   5, -10,
+            -20, -10, -10, -10, -10, -10, -10, -20};
+    private static final int[] ROOK = {
+              0,   0,   0,   0,   0,   0,   0,   0,
+              5,  10,  10,  10,  10,  10,  10,   5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+             -5,   0,   0,   0,   0,   0,   0,  -5,
+              0,   0,   0,   5,   5,   0,   0,   0};
+    private static final int[] QUEEN = {
+            -20, -10, -10,  -5,  -5, -10, -10, -20,
+            -10,   0,   0,   0,   0,   0,   0, -10,
+            -10,   0,   5,   5,   5,   5,   0, -10,
+             -5,   0,   5,   5,   5,   5,   0,  -5,
+              0,   0,   5,   5,   5,   5,   0,  -5,
+            -10,   5,   5,   5,   5,   5,   0, -10,
+            -10,   0,   5,   0,   0,   0,   0, -10,
+            -20, -10, -10,  -5,  -5, -10, -10, -20};
+    private static final int[] KING_MIDDLEGAME = {
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -30, -40, -40, -50, -50, -40, -40, -30,
+            -20, -30, -30, -40, -40, -30, -30, -20,
+            -10, -20, -20, -20, -20, -20, -20, -10,
+             20,  20,   0,   0,   0,   0,  20,  20,
+             20,  30,  10,   0,   0,  10,  30,  20};
+    private static final int[] KING_ENDGAME = {
+            -50, -40, -30, -20, -20, -30, -40, -50,
+            -30, -20, -10,   0,   0, -10, -20, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  30,  40,  40,  30, -10, -30,
+            -30, -10,  20,  30,  30,  20, -10, -30,
+            -30, -30,   0,   0,   0,   0, -30, -30,
+            -50, -30, -30, -30, -30, -30, -30, -50};
+
+    // One table per board index (see BitBoard.boardIndex()), Black ones mirrored and negated:
+    private static final int[][] MIDDLEGAME_TABLES = createTables(PAWN_MIDDLEGAME, KING_MIDDLEGAME);
+    private static final int[][] ENDGAME_TABLES = createTables(PAWN_ENDGAME, KING_ENDGAME);
+
+    private PieceSquareTables() {
+        throw new RuntimeException("ERROR: Not instantiable");
+    }
+
+    // piecePoints(index) returns the material points of a piece of the given board index.
+    public static int piecePoints(final int index) {
+        return PIECE_TYPES[index % BitBoard.PIECE_TYPES].getPiecePoints();
+    }
+
+    // gamePhase(index) returns the game phase of a piece of the given board index.
+    public static int gamePhase(final int index) {
+        return PHASE_WEIGHTS[index % BitBoard.PIECE_TYPES];
+    }
+
+    // gamePhase(bitBoard) returns the game phase of all the pieces of the given piece masks.
+    public static int gamePhase(final BitBoard bitBoard) {
+        int gamePhase = 0;
+        for (int index = 0; index < 2 * BitBoard.PIECE_TYPES; index++) {
+            gamePhase += gamePhase(index) * BitBoard.tileCount(bitBoard.getPieces(index));
+        }
+        return gamePhase;
+    }
+
+    // middlegameScore(index, coordinate) returns the middlegame tile bonus of a piece of the given board index on the
+    //  given tile (negative for a Black piece).
+    public static int middlegameScore(final int index, final int coordinate) {
+        return MIDDLEGAME_TABLES[index][coordinate];
+    }
+
+    // endgameScore(index, coordinate) returns the endgame tile bonus of a piece of the given board index on the given
+    //  tile (negative for a Black piece).
+    public static int endgameScore(final int index, final int coordinate) {
+        return ENDGAME_TABLES[index][coordinate];
+    }
+
+    // taperedScore(middlegameScore, endgameScore, gamePhase) blends the given middlegame and endgame scores according
+    //  to the given game phase (more than MAX_GAME_PHASE after promotions counts as MAX_GAME_PHASE).
+    public static int taperedScore(final int middlegameScore, final int endgameScore, final int gamePhase) {
+        final int phase = Math.min(gamePhase, MAX_GAME_PHASE);
+        return (middlegameScore * phase + endgameScore * (MAX_GAME_PHASE - phase)) / MAX_GAME_PHASE;
+    }
+
+    // pieceSquareScore(bitBoard) returns the tapered sum of the tile bonuses of all the pieces of the given piece
+    //  masks, computed from scratch (a SearchBoard keeps it up to date move after move instead).
+    public static int pieceSquareScore(final BitBoard bitBoard) {
+        int middlegameScore = 0;
+        int endgameScore = 0;
+        int gamePhase = 0;
+        for (int index = 0; index < 2 * BitBoard.PIECE_TYPES; index++) {
+            for (long mask = bitBoard.getPieces(index); mask != BitBoard.EMPTY; mask &= mask - 1) {
+                final int coordinate = BitBoard.firstTile(mask);
+                middlegameScore += middlegameScore(index, coordinate);
+                endgameScore += endgameScore(index, coordinate);
+                gamePhase += gamePhase(index);
+            }
+        }
+        return taperedScore(middlegameScore, endgameScore, gamePhase);
+    }
+
+    // createTables(pawnTable, kingTable) returns the tables of every board index, with the given Pawn and King tables
+    //  (the other pieces have the same tables in the middlegame and in the endgame).
+    private static int[][] createTables(final int[] pawnTable, final int[] kingTable) {
+        final int[][] whiteTables = {pawnTable, KNIGHT, BISHOP, ROOK, QUEEN, kingTable};
+        final int[][] tables = new int[2 * BitBoard.PIECE_TYPES][ChessBoard.TOTAL_TILES];
+        for (int type = 0; type < BitBoard.PIECE_TYPES; type++) {
+            final int whiteIndex = BitBoard.boardIndex(Team.WHITE, PIECE_TYPES[type]);
+            final int blackIndex = BitBoard.boardIndex(Team.BLACK, PIECE_TYPES[type]);
+            for (int coordinate = 0; coordinate < ChessBoard.TOTAL_TILES; coordinate++) {
+                tables[whiteIndex][coordinate] = whiteTables[type][coordinate];
+                // the same tile seen from the Black side is on the mirrored row:
+                tables[blackIndex][coordinate] = -whiteTables[type][coordinate ^ 56];
+            }
+        }
+        return tables;
+    }
+}
@@ -0,0 +1,405 @@
+package com.chessgame.board;
+
+import com.chessgame.movement.PackedMove;
+import com.chessgame.pieces.ChessPiece;
+import com.chessgame.player.Team;
+
+import java.util.Arrays;
+
+// A SearchBoard is a mutable copy of a ChessBoard used only by the AI search. Instead of building a new ChessBoard for
+//  every explored move, the search makes a (packed) move on the SearchBoard and unmakes it when it is done with it.
+//  The state needed to unmake a move is kept on an undo stack, one entry per move made.
+// The GUI keeps working with the immutable ChessBoard; a SearchBoard is initialised from it at the start of a search.
+public class SearchBoard {
+    public static final int NO_PIECE = -1; // piece index of an empty tile
+    public static final int NO_TILE = -1; // en passant tile when there is no en passant move available
+    public static final int MAX_PLY = 128; // maximum number of moves made on top of the initial board
+    // Longs per packed board (see pack()): the mask of each board index (see BitBoard.boardIndex()), then the state.
+    public static final int PACKED_LONGS = 2 * BitBoard.PIECE_TYPES + 1;
+
+    // Castling rights, one bit per castling move still available:
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+    // Castling rights kept when a piece moves from or to each tile (moving a King or a Rook, or taking a Rook):
+    private static final int[] CASTLING_RIGHTS_MASKS = createCastlingRightsMasks();
+
+    // Layout of an undo stack entry (the moved and captured pieces are part of the packed move itself):
+    private static final int CASTLING_MASK = 0xF; // castling rights
+    private static final int EN_PASSANT_SHIFT = 4; // en passant tile + 1 (0 for NO_TILE)
+    private static final int EN_PASSANT_MASK = 0x7F;
+    private static final int CASTLED_SHIFT = 11; // hasCastled flags, one bit per team
+    private static final int CASTLED_MASK = 0x3;
+    private static final int NULL_MOVE_FLAG = 1 << 13; // set if the entry is a null move (see makeNullMove())
+    // A packed board state is laid out like an undo stack entry, plus:
+    private static final long BLACK_MOVER_FLAG = 1L << 14; // set if Black moves next
+
+    private final BitBoard bitBoard;
+    private final int[] pieces; // piece index (see BitBoard.boardIndex()) on each tile, or NO_PIECE
+    private final int[] undoStack;
+    private final long[] keyStack; // Zobrist key before each move made
+    private int ply; // number of moves currently made on top of the initial board
+    private Team currentMover;
+    private int castlingRights;
+    private int enPassantTile; // tile behind the pawn that just moved two tiles forward, or NO_TILE
+    private int castledFlags; // bit (1 << team ordinal) set if the team has castled
+    private long zobristKey; // see getZobristKey()
+    private long pawnKey; // see getPawnKey()
+    // Running totals of the pieces on the board, updated with every piece placed or removed (see PieceSquareTables):
+    private final int[] piecesPoints; // material points of each team
+    private int middlegameScore; // White minus Black middlegame tile bonuses
+    private int endgameScore; // White minus Black endgame tile bonuses
+    private int gamePhase;
+    private PieceListener pieceListener; // told about every piece placed or removed, or null
+
+    public SearchBoard(final ChessBoard board) {
+        this.bitBoard = new BitBoard(board.getBitBoard());
+        this.pieces = new int[ChessBoard.TOTAL_TILES];
+        this.undoStack = new int[MAX_PLY];
+        this.keyStack = new long[MAX_PLY];
+        this.piecesPoints = new int[2];
+        this.ply = 0;
+        for (int coordinate = 0; coordinate < ChessBoard.TOTAL_TILES; coordinate++) {
+            final ChessPiece piece = board.getPiece(coordinate);
+            this.pieces[coordinate] = piece == null ? NO_PIECE :
+                    BitBoard.boardIndex(piece.getPieceTeam(), piece.getPieceType());
+            if (piece != null) {
+                updateScores(this.pieces[coordinate], coordinate, 1);
+                if (piece.getPieceType() == ChessPiece.pieceType.PAWN) {
+                    this.pawnKey ^= Zobrist.pieceKey(this.pieces[coordinate], coordinate);
+                }
+            }
+        }
+        this.currentMover = board.getCurrentMovingPlayer().getTeam();
+        this.castlingRights = board.getCastlingRights();
+        this.enPassantTile = board.getEnPassantPawn() == null ? NO_TILE :
+                board.getEnPassantPawn().getPiecePosition() - 8 * board.getEnPassantPawn().getPieceTeam().getDirection();
+        this.castledFlags = (board.getWhitePlayer().isCastled() ? 1 << Team.WHITE.ordinal() : 0) |
+                (board.getBlackPlayer().isCastled() ? 1 << Team.BLACK.ordinal() : 0);
+        this.zobristKey = board.getZobristKey() ^ Zobrist.castledKey(this.castledFlags);
+    }
+
+    // SearchBoard(board) copies the given search board along with the moves made on it, so that another thread can
+    //  search it on its own.
+    public SearchBoard(final SearchBoard board) {
+        this.bitBoard = new BitBoard(board.bitBoard);
+        this.pieces = board.pieces.clone();
+        this.undoStack = board.undoStack.clone();
+        this.keyStack = board.keyStack.clone();
+        this.ply = board.ply;
+        this.currentMover = board.currentMover;
+        this.castlingRights = board.castlingRights;
+        this.enPassantTile = board.enPassantTile;
+        this.castledFlags = board.castledFlags;
+        this.zobristKey = board.zobristKey;
+        this.pawnKey = board.pawnKey;
+        this.piecesPoints = board.piecesPoints.clone();
+        this.middlegameScore = board.middlegameScore;
+        this.endgameScore = board.endgameScore;
+        this.gamePhase = board.gamePhase;
+    }
+
+    // SearchBoard(packedBoards, offset) initialises the search board from the board packed at the given offset of the
+    //  given array (see pack()), with no move made on top of it.
+    public SearchBoard(final long[] packedBoards, final int offset) {
+        if (offset < 0 || offset > packedBoards.length - PACKED_LONGS) {
+            throw new IllegalArgumentException("INVALID PACKED BOARD OFFSET: " + offset + "!");
+        }
+        this.bitBoard = new BitBoard();
+        this.pieces = new int[ChessBoard.TOTAL_TILES];
+        this.undoStack = new int[MAX_PLY];
+        this.keyStack = new long[MAX_PLY];
+        this.piecesPoints = new int[2];
+        this.ply = 0;
+        Arrays.fill(this.pieces, NO_PIECE);
+        for (int index = 0; index < 2 * BitBoard.PIECE_TYPES; index++) {
+            for (long mask = packedBoards[offset + index]; mask != BitBoard.EMPTY; mask &= mask - 1) {
+                putPiece(BitBoard.firstTile(mask), index);
+            }
+        }
+        final long state = packedBoards[offset + 2 * BitBoard.PIECE_TYPES];
+        this.currentMover = (state & BLACK_MOVER_FLAG) != 0 ? Team.BLACK : Team.WHITE;
+        this.castlingRights = (int) state & CASTLING_MASK;
+        this.enPassantTile = (int) ((state >>> EN_PASSANT_SHIFT) & EN_PASSANT_MASK) - 1;
+        this.castledFlags = (int) (state >>> CASTLED_SHIFT) & CASTLED_MASK;
+        // putPiece() already added the keys of the pieces:
+        this.zobristKey ^= stateKey();
+    }
+
+    // pack(packedBoards, offset) writes the current board into PACKED_LONGS longs of the given array, from the given
+    //  offset: the mask of each board index, then the moving team, castling rights, en passant tile and hasCastled
+    //  flags in one long. Boards packed one after the other are scored together by EvaluateBoardScore.score(long[]).
+    public void pack(final long[] packedBoards, final int offset) {
+        for (int index = 0; index < 2 * BitBoard.PIECE_TYPES; index++) {
+            packedBoards[offset + index] = this.bitBoard.getPieces(index);
+        }
+        packedBoards[offset + 2 * BitBoard.PIECE_TYPES] = this.castlingRights |
+                ((this.enPassantTile + 1) << EN_PASSANT_SHIFT) | (this.castledFlags << CASTLED_SHIFT) |
+                (this.currentMover.isBlack() ? BLACK_MOVER_FLAG : 0L);
+    }
+
+    // isBlackMover(packedBoards, offset) checks if Black moves next on the board packed at the given offset.
+    public static boolean isBlackMover(final long[] packedBoards, final int offset) {
+        return (packedBoards[offset + 2 * BitBoard.PIECE_TYPES] & BLACK_MOVER_FLAG) != 0;
+    }
+
+    // hasCastled(packedBoards, offset, team) checks if the given team has played its castling move on the board packed
+    //  at the given offset.
+    public static boolean hasCastled(final long[] packedBoards, final int offset, final Team team) {
+        return ((packedBoards[offset + 2 * BitBoard.PIECE_TYPES] >>> CASTLED_SHIFT) & (1 << team.ordinal())) != 0;
+    }
+
+    // getBitBoard() returns the piece masks of the current SearchBoard.
+    public BitBoard getBitBoard() {
+        return this.bitBoard;
+    }
+
+    // getPieceIndex(coordinate) returns the board index (see BitBoard.boardIndex()) of the piece on the given tile, or
+    //  NO_PIECE if the tile is empty.
+    public int getPieceIndex(final int coordinate) {
+        return this.pieces[coordinate];
+    }
+
+    // getCurrentMover() returns the team that moves next.
+    public Team getCurrentMover() {
+        return this.currentMover;
+    }
+
+    // getCastlingRights() returns the castling moves still available to both teams (see WHITE_KING_SIDE...).
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    // getEnPassantTile() returns the tile a pawn can move to with an en passant move, or NO_TILE.
+    public int getEnPassantTile() {
+        return this.enPassantTile;
+    }
+
+    // getPly() returns the number of moves currently made on top of the initial board.
+    public int getPly() {
+        return this.ply;
+    }
+
+    // hasCastled(team) checks if the given team has played its castling move.
+    public boolean hasCastled(final Team team) {
+        return (this.castledFlags & (1 << team.ordinal())) != 0;
+    }
+
+    // getZobristKey() returns the 64-bit hash key of the current SearchBoard: the key of the equivalent ChessBoard (see
+    //  ChessBoard.getZobristKey()) combined with the hasCastled flags, which the board score depends on. It is updated
+    //  with every move made and restored with every move unmade.
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    // getPieceListener() returns the listener told about every piece placed or removed, or null.
+    public PieceListener getPieceListener() {
+        return this.pieceListener;
+    }
+
+    // setPieceListener(pieceListener) sets the listener told about every piece placed on or removed from the board from
+    //  now on (null for none). A copy of the board has no listener.
+    public void setPieceListener(final PieceListener pieceListener) {
+        this.pieceListener = pieceListener;
+    }
+
+    // getPawnKey() returns the 64-bit hash key of the Pawns of the current SearchBoard: the XOR of the Zobrist keys of
+    //  the Pawns of both teams (see Zobrist.pieceKey()), which only changes when a Pawn moves, is taken or is promoted.
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+
+    // getPiecesPoints(team) returns the sum of the material points of the given team's pieces.
+    public int getPiecesPoints(final Team team) {
+        return this.piecesPoints[team.ordinal()];
+    }
+
+    // getPieceSquareScore() returns the tapered sum of the tile bonuses of all the pieces, White minus Black (see
+    //  PieceSquareTables). Like the material points, it is kept up to date with every move made and unmade.
+    public int getPieceSquareScore() {
+        return PieceSquareTables.taperedScore(this.middlegameScore, this.endgameScore, this.gamePhase);
+    }
+
+    // getGamePhase() returns the game phase of the pieces on the board (see PieceSquareTables.MAX_GAME_PHASE).
+    public int getGamePhase() {
+        return this.gamePhase;
+    }
+
+    // isKingAttacked(team) checks if the King of the given team is attacked by the enemy team.
+    public boolean isKingAttacked(final Team team) {
+        return this.bitBoard.isTileAttacked(this.bitBoard.getKingTile(team), team.getEnemyTeam());
+    }
+
+    // isCheck() checks if the team moving next is in check.
+    public boolean isCheck() {
+        return isKingAttacked(this.currentMover);
+    }
+
+    // make(move) executes the given packed move on the board and returns true if the move did not leave the moving
+    //  team's King under attack. The move must be unmade with unmake() in both cases.
+    public boolean make(final int move) {
+        final int curCrd = PackedMove.getCurrentCrd(move);
+        final int destCrd = PackedMove.getDestinationCrd(move);
+        final int flag = PackedMove.getFlag(move);
+        final Team mover = this.currentMover;
+        // saving everything that cannot be recomputed from the move itself:
+        this.keyStack[this.ply] = this.zobristKey;
+        this.undoStack[this.ply++] = this.castlingRights | ((this.enPassantTile + 1) << EN_PASSANT_SHIFT) |
+                (this.castledFlags << CASTLED_SHIFT);
+        // the pieces keys are updated while placing and removing the pieces, the rest of the state is swapped at the end:
+        final long oldStateKey = stateKey();
+        if (flag == PackedMove.EN_PASSANT) {
+            // the captured pawn is not on the destination tile, but right behind it:
+            removePiece(destCrd - 8 * mover.getDirection());
+        }
+        else if ((flag & PackedMove.CAPTURE) != 0) {
+            removePiece(destCrd);
+        }
+        removePiece(curCrd);
+        // a promoted Pawn becomes the promoted piece of the move:
+        putPiece(destCrd, (flag & PackedMove.PROMOTION) != 0 ? PackedMove.getPromotedPiece(move) :
+                PackedMove.getMovingPiece(move));
+        if (flag == PackedMove.KING_SIDE_CASTLE || flag == PackedMove.QUEEN_SIDE_CASTLE) {
+            final int rookCrd = castleRookCrd(destCrd);
+            final int rookDestCrd = castleRookDestCrd(destCrd);
+            putPiece(rookDestCrd, this.pieces[rookCrd]);
+            removePiece(rookCrd);
+            this.castledFlags |= 1 << mover.ordinal();
+        }
+        this.enPassantTile = flag == PackedMove.PAWN_DOUBLE ? curCrd + 8 * mover.getDirection() : NO_TILE;
+        this.castlingRights &= CASTLING_RIGHTS_MASKS[curCrd] & CASTLING_RIGHTS_MASKS[destCrd];
+        this.currentMover = mover.getEnemyTeam();
+        this.zobristKey ^= stateKey() ^ oldStateKey;
+        return !isKingAttacked(mover);
+    }
+
+    // unmake(move) takes back the given packed move, which must be the last move made on the board.
+    public void unmake(final int move) {
+        final int curCrd = PackedMove.getCurrentCrd(move);
+        final int destCrd = PackedMove.getDestinationCrd(move);
+        final int flag = PackedMove.getFlag(move);
+        final int undoEntry = this.undoStack[--this.ply];
+        final Team mover = this.currentMover.getEnemyTeam();
+        this.currentMover = mover;
+        this.castlingRights = undoEntry & CASTLING_MASK;
+        this.enPassantTile = ((undoEntry >>> EN_PASSANT_SHIFT) & EN_PASSANT_MASK) - 1;
+        this.castledFlags = (undoEntry >>> CASTLED_SHIFT) & CASTLED_MASK;
+        if (flag == PackedMove.KING_SIDE_CASTLE || flag == PackedMove.QUEEN_SIDE_CASTLE) {
+            final int rookCrd = castleRookCrd(destCrd);
+            final int rookDestCrd = castleRookDestCrd(destCrd);
+            putPiece(rookCrd, this.pieces[rookDestCrd]);
+            removePiece(rookDestCrd);
+        }
+        // the moving piece of the move is still a Pawn if it got promoted:
+        removePiece(destCrd);
+        putPiece(curCrd, PackedMove.getMovingPiece(move));
+        final int capturedPiece = PackedMove.getCapturedPiece(move);
+        if (capturedPiece != PackedMove.NO_PIECE) {
+            putPiece(flag == PackedMove.EN_PASSANT ? destCrd - 8 * mover.getDirection() : destCrd, capturedPiece);
+        }
+        this.zobristKey = this.keyStack[this.ply];
+    }
+
+    // makeNullMove() passes the turn to the enemy team without moving any piece, as if the moving team could skip its
+    //  move (the en passant move is lost). It must be taken back with unmakeNullMove().
+    public void makeNullMove() {
+        this.keyStack[this.ply] = this.zobristKey;
+        this.undoStack[this.ply++] = this.castlingRights | ((this.enPassantTile + 1) << EN_PASSANT_SHIFT) |
+                (this.castledFlags << CASTLED_SHIFT) | NULL_MOVE_FLAG;
+        final long oldStateKey = stateKey();
+        this.enPassantTile = NO_TILE;
+        this.currentMover = this.currentMover.getEnemyTeam();
+        this.zobristKey ^= stateKey() ^ oldStateKey;
+    }
+
+    // unmakeNullMove() takes back the null move made last on the board.
+    public void unmakeNullMove() {
+        final int undoEntry = this.undoStack[--this.ply];
+        this.currentMover = this.currentMover.getEnemyTeam();
+        this.enPassantTile = ((undoEntry >>> EN_PASSANT_SHIFT) & EN_PASSANT_MASK) - 1;
+        this.zobristKey = this.keyStack[this.ply];
+    }
+
+    // isNullMove() checks if the last move made on the board is a null move.
+    public boolean isNullMove() {
+        return this.ply > 0 && (this.undoStack[this.ply - 1] & NULL_MOVE_FLAG) != 0;
+    }
+
+    // stateKey() returns the part of the Zobrist key that does not come from the pieces: moving team, castling rights,
+    //  en passant column and hasCastled flags.
+    private long stateKey() {
+        final long key = Zobrist.moverKey(this.currentMover) ^ Zobrist.castlingKey(this.castlingRights) ^
+                Zobrist.castledKey(this.castledFlags);
+        return this.enPassantTile == NO_TILE ? key : key ^ Zobrist.enPassantKey(this.enPassantTile);
+    }
+
+    // putPiece(coordinate, index) places a piece of the given board index on the given (empty) tile.
+    private void putPiece(final int coordinate, final int index) {
+        this.pieces[coordinate] = index;
+        this.zobristKey ^= Zobrist.pieceKey(index, coordinate);
+        if (isPawn(index)) {
+            this.pawnKey ^= Zobrist.pieceKey(index, coordinate);
+        }
+        this.bitBoard.putPiece(coordinate, index);
+        updateScores(index, coordinate, 1);
+        if (this.pieceListener != null) {
+            this.pieceListener.piecePut(index, coordinate);
+        }
+    }
+
+    // removePiece(coordinate) removes the piece on the given tile.
+    private void removePiece(final int coordinate) {
+        this.zobristKey ^= Zobrist.pieceKey(this.pieces[coordinate], coordinate);
+        if (isPawn(this.pieces[coordinate])) {
+            this.pawnKey ^= Zobrist.pieceKey(this.pieces[coordinate], coordinate);
+        }
+        this.bitBoard.removePiece(coordinate, this.pieces[coordinate]);
+        updateScores(this.pieces[coordinate], coordinate, -1);
+        final int removedPiece = this.pieces[coordinate];
+        this.pieces[coordinate] = NO_PIECE;
+        if (this.pieceListener != null) {
+            this.pieceListener.pieceRemoved(removedPiece, coordinate);
+        }
+    }
+
+    // isPawn(index) checks if the given board index is the index of the Pawns of a team.
+    private static boolean isPawn(final int index) {
+        return index % BitBoard.PIECE_TYPES == ChessPiece.pieceType.PAWN.ordinal();
+    }
+
+    // updateScores(index, coordinate, sign) adds (sign 1) or subtracts (sign -1) a piece of the given board index on
+    //  the given tile to or from the running totals of the pieces.
+    private void updateScores(final int index, final int coordinate, final int sign) {
+        this.piecesPoints[index / BitBoard.PIECE_TYPES] += sign * PieceSquareTables.piecePoints(index);
+        this.middlegameScore += sign * PieceSquareTables.middlegameScore(index, coordinate);
+        this.endgameScore += sign * PieceSquareTables.endgameScore(index, coordinate);
+        this.gamePhase += sign * PieceSquareTables.gamePhase(index);
+    }
+
+    // castleRookCrd(kingDestCrd) returns the original coordinate of the Rook castling with a King moving to the given
+    //  destination coordinate.
+    static int castleRookCrd(final int kingDestCrd) {
+        // King side: the Rook is one tile further than the King's destination. Queen side: two tiles further.
+        return (kingDestCrd & 7) == 6 ? kingDestCrd + 1 : kingDestCrd - 2;
+    }
+
+    // castleRookDestCrd(kingDestCrd) returns the destination coordinate of the Rook castling with a King moving to the
+    //  given destination coordinate (the Rook ends up on the tile the King walked over).
+    static int castleRookDestCrd(final int kingDestCrd) {
+        return (kingDestCrd & 7) == 6 ? kingDestCrd - 1 : kingDestCrd + 1;
+    }
+
+    // createCastlingRightsMasks() returns, for each tile, the castling rights that survive a move from or to that tile.
+    private static int[] createCastlingRightsMasks() {
+        final int[] masks = new int[ChessBoard.TOTAL_TILES];
+        Arrays.fill(masks, WHITE_KING_SIDE | WHITE_QUEEN_SIDE | BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        masks[60] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        masks[63] &= ~WHITE_KING_SIDE;
+        masks[56] &= ~WHITE_QUEEN_SIDE;
+        masks[4] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+        masks[7] &= ~BLACK_KING_SIDE;
+        masks[0] &= ~BLACK_QUEEN_SIDE;
+        return masks;
+    }
+}
@@ -0,0 +1,88 @@
+package com.chessgame.board;
+
+import com.chessgame.pieces.ChessPiece;
+import com.chessgame.player.Team;
+
+import java.util.Random;
+
+// Zobrist holds the random 64-bit keys used to hash a chess position into a single long: the key of a position is the
+//  XOR of the keys of every (piece, tile) pair on the board, of the Black mover key if Black moves next, of its castling
+//  rights and of the column of its en passant pawn. Since XOR is its own inverse, a move updates the key of a position
+//  by XORing in and out only the keys of what it changes.
+// The keys are generated from a fixed seed, so a position has the same key in every run of the game.
+public final class Zobrist {
+    private static final long SEED = 0x5EEDC0FFEE15600DL;
+    private static final long[][] PIECE_KEYS = new long[2 * BitBoard.PIECE_TYPES][ChessBoard.TOTAL_TILES];
+    private static final long[] CASTLING_KEYS = new long[16]; // one per combination of castling rights
+    private static final long[] EN_PASSANT_KEYS = new long[8]; // one per column
+    private static final long[] CASTLED_KEYS = new long[4]; // one per combination of SearchBoard hasCastled flags
+    private static final long BLACK_MOVER_KEY;
+
+    static {
+        final Random random = new Random(SEED);
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (int coordinate = 0; coordinate < ChessBoard.TOTAL_TILES; coordinate++) {
+                pieceKeys[coordinate] = random.nextLong();
+            }
+        }
+        // no castling rights left hashes to 0, like an empty board:
+        for (int rights = 1; rights < CASTLING_KEYS.length; rights++) {
+            CASTLING_KEYS[rights] = random.nextLong();
+        }
+        for (int column = 0; column < EN_PASSANT_KEYS.length; column++) {
+            EN_PASSANT_KEYS[column] = random.nextLong();
+        }
+        BLACK_MOVER_KEY = random.nextLong();
+        for (int flags = 1; flags < CASTLED_KEYS.length; flags++) {
+            CASTLED_KEYS[flags] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+        throw new RuntimeException("ERROR: Not instantiable");
+    }
+
+    // pieceKey(index, coordinate) returns the key of a piece of the given board index (see BitBoard.boardIndex()) on
+    //  the given tile.
+    public static long pieceKey(final int index, final int coordinate) {
+        return PIECE_KEYS[index][coordinate];
+    }
+
+    // pieceKey(piece) returns the key of the given chess piece on its current tile.
+    public static long pieceKey(final ChessPiece piece) {
+        return PIECE_KEYS[BitBoard.boardIndex(piece.getPieceTeam(), piece.getPieceType())][piece.getPiecePosition()];
+    }
+
+    // moverKey(team) returns the key of the given team moving next (0 for White).
+    public static long moverKey(final Team team) {
+        return team.isBlack() ? BLACK_MOVER_KEY : 0L;
+    }
+
+    // castlingKey(rights) returns the key of the given castling rights (see SearchBoard.WHITE_KING_SIDE...).
+    public static long castlingKey(final int rights) {
+        return CASTLING_KEYS[rights];
+    }
+
+    // enPassantKey(coordinate) returns the key of an en passant pawn (or en passant tile) in the column of the given
+    //  coordinate.
+    public static long enPassantKey(final int coordinate) {
+        return EN_PASSANT_KEYS[coordinate & 7];
+    }
+
+    // castledKey(flags) returns the key of the given hasCastled flags of a SearchBoard (bit (1 << team ordinal) set if the
+    //  team has castled). They are not part of the position itself, but they are part of its evaluation.
+    public static long castledKey(final int flags) {
+        return CASTLED_KEYS[flags];
+    }
+
+    // piecesKey(bitBoard) returns the XOR of the keys of all the pieces of the given piece masks.
+    public static long piecesKey(final BitBoard bitBoard) {
+        long key = 0L;
+        for (int index = 0; index < 2 * BitBoard.PIECE_TYPES; index++) {
+            for (long tiles = bitBoard.getPieces(index); tiles != BitBoard.EMPTY; tiles &= tiles - 1) {
+                key ^= PIECE_KEYS[index][BitBoard.firstTile(tiles)];
+            }
+        }
+        return key;
+    }
+}
@@ -5,7 +5,7 @@ import com.chessgame.board.ChessTile;
 import com.chessgame.movement.Move;
 import com.chessgame.pieces.ChessPiece;
 import com.chessgame.movement.BoardUpdate;
-import com.chessgame.player.aiopponent.Algorithms;
+import com.chessgame.player.aiopponent.IterativeDeepening;
 import com.chessgame.player.aiopponent.Minimax;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
@@ -18,6 +18,7 @@ import java.awt.event.MouseListener;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
@@ -36,6 +37,7 @@ public class Table extends Observable {
     private final Color blackColor = Color.decode("#737272");
     private final Color redColor = Color.decode("#FD603F");
     private final static String piecesImagesPath = "images/pieces/";
+    private final static Duration THINKING_TIME = Duration.ofSeconds(3); // per AI move
     private ChessTile currentTile;
     private ChessTile destTile;
     private ChessPiece onClickMovedPiece;
@@ -43,12 +45,14 @@ public class Table extends Observable {
     private final MoveHistory moveHistory;
     private static final Table INSTANCE = new Table();
     private final Setup setup;
+    private IterativeDeepening aiSearch; // kept for the whole game, so its threads and table serve every AI move
 
     private Table() {
         JFrame mainFrame = new JFrame("Chess");
         mainFrame.setLayout(new BorderLayout());
         this.chessBoard = ChessBoard.gameInitialize();
         this.boardOrientation = BoardOrientation.WHITESIDE;
+        this.aiSearch = createAISearch();
         final JMenuBar tableMenu = generateOptionsBar();
         mainFrame.setJMenuBar(tableMenu);
         mainFrame.setSize(MAIN_FRAME_DIMENSION);
@@ -79,6 +83,18 @@ public class Table extends Observable {
         return this.setup;
     }
 
+    // getAISearch() returns the search that plays the AI moves of the current game.
+    private IterativeDeepening getAISearch() {
+        return this.aiSearch;
+    }
+
+    // createAISearch() creates the search for the AI moves of a new game: the root moves are split across the
+    //  processors of the machine.
+    private static IterativeDeepening createAISearch() {
+        return new IterativeDeepening(THINKING_TIME, Minimax.TRANSPOSITION_TABLE_MB,
+                Runtime.getRuntime().availableProcessors());
+    }
+
     // getChessBoard() returns the current chess board.
     private ChessBoard getChessBoard() {
         return this.chessBoard;
@@ -113,7 +129,10 @@ public class Table extends Observable {
             Table.get().setupUpdate(Table.get().getSetup());
         });
         final JMenuItem quitGame = new JMenuItem("Quit");
-        quitGame.addActionListener(e -> System.exit(0));
+        quitGame.addActionListener(e -> {
+            Table.get().getAISearch().close();
+            System.exit(0);
+        });
         final JMenuItem resetGame = new JMenuItem("Restart");
         resetGame.addActionListener(e -> resetGame());
         optionsMenu.add(setupMenuItem);
@@ -137,7 +156,6 @@ public class Table extends Observable {
     }
 
     private static class AIRunner extends SwingWorker<Move, String> {
-
         private AIRunner() {
 
         }
@@ -145,8 +163,7 @@ public class Table extends Observable {
         // running algorithm in background:
         @Override
         protected Move doInBackground(){
-            final Algorithms minimax = new Minimax(4);
-            return minimax.runAlgorithm(Table.get().getChessBoard());
+            return Table.get().getAISearch().runAlgorithm(Table.get().getChessBoard());
         }
         // update GUI components after AI move is executed:
         @Override
@@ -239,6 +256,9 @@ public class Table extends Observable {
 
     // gameResetOption() resets the current game board to the initial state.
     private void resetGame() {
+        // the search of the ended game releases its threads, and the new game starts with an empty table:
+        Table.get().getAISearch().close();
+        this.aiSearch = createAISearch();
         Table.get().updateChessBoard(ChessBoard.gameInitialize());
         Table.get().getMoveHistory().clear();
         Table.get().getCapturedPiecesPanel().redraw(Table.get().getMoveHistory());
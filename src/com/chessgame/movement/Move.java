@@ -1,6 +1,8 @@
 package com.chessgame.movement;
 
+import com.chessgame.board.BitBoard;
 import com.chessgame.board.ChessBoard;
+import com.chessgame.board.Zobrist;
 import com.chessgame.pieces.ChessPiece;
 import com.chessgame.pieces.Pawn;
 import com.chessgame.pieces.Rook;
@@ -47,9 +49,34 @@ public abstract class Move {
         builder.putPiece(this.movingPiece.movePiece(this));
         // the move maker is now the opponent (it is the opponent's turn):
         builder.setMover(this.curBoard.getCurrentMovingPlayer().getOpponent().getTeam());
+        builder.setZobristKey(nextZobristKey(movedPieceKeys()));
         return builder.build();
     }
 
+    // nextZobristKey(pieceKeys) returns the hash key of the board after the current move (castling rights left out,
+    //  see ChessBoard.Builder.setZobristKey()), given the XOR of the keys of the pieces the move puts on or takes off
+    //  the board: the key of the current board with the moving team switched and its castling rights and en passant
+    //  column taken out.
+    protected long nextZobristKey(final long pieceKeys) {
+        final ChessBoard board = this.curBoard;
+        long key = board.getZobristKey() ^ pieceKeys ^ Zobrist.castlingKey(board.getCastlingRights()) ^
+                Zobrist.moverKey(board.getCurrentMovingPlayer().getTeam()) ^
+                Zobrist.moverKey(board.getCurrentMovingPlayer().getOpponent().getTeam());
+        if (board.getEnPassantPawn() != null) {
+            key ^= Zobrist.enPassantKey(board.getEnPassantPawn().getPiecePosition());
+        }
+        return key;
+    }
+
+    // movedPieceKeys() returns the XOR of the keys of the moving piece on its current and destination tiles and of the
+    //  targeted piece, if any.
+    protected long movedPieceKeys() {
+        final ChessPiece targetedPiece = getTargetedPiece();
+        return Zobrist.pieceKey(this.movingPiece) ^ Zobrist.pieceKey(BitBoard.boardIndex(
+                this.movingPiece.getPieceTeam(), this.movingPiece.getPieceType()), this.destinationCrd) ^
+                (targetedPiece == null ? 0L : Zobrist.pieceKey(targetedPiece));
+    }
+
     // getDestinationCrd() returns the destination coordinate (tile index number) of the current move.
     public int getDestinationCrd() {
         return this.destinationCrd;
@@ -215,6 +242,8 @@ public abstract class Move {
             }
             builder.putPiece(this.movingPiece.movePiece(this));
             builder.setMover(this.curBoard.getCurrentMovingPlayer().getOpponent().getTeam());
+            // the taken pawn is not on the destination tile, but its key is still the one of its own tile:
+            builder.setZobristKey(nextZobristKey(movedPieceKeys()));
             return builder.build();
         }
     }
@@ -242,6 +271,7 @@ public abstract class Move {
             builder.putPiece(movingPawn);
             builder.setEnPassant(movingPawn); // NEW: after moving 2 tiles up, this pawn is now a potential en passant move
             builder.setMover(this.curBoard.getCurrentMovingPlayer().getOpponent().getTeam());
+            builder.setZobristKey(nextZobristKey(movedPieceKeys()) ^ Zobrist.enPassantKey(this.destinationCrd));
             return builder.build();
         }
     }
@@ -299,6 +329,10 @@ public abstract class Move {
             builder.putPiece(new Rook(this.rookDestCrd, this.rook.getPieceTeam(), false));
             this.curBoard.getCurrentMovingPlayer().castled(); // change hasCastled status to true
             builder.setMover(this.curBoard.getCurrentMovingPlayer().getOpponent().getTeam());
+            // the castling Rook moves too:
+            final int rookIndex = BitBoard.boardIndex(this.rook.getPieceTeam(), this.rook.getPieceType());
+            builder.setZobristKey(nextZobristKey(movedPieceKeys() ^ Zobrist.pieceKey(rookIndex, this.rookCurCrd) ^
+                    Zobrist.pieceKey(rookIndex, this.rookDestCrd)));
             return builder.build();
         }
 
@@ -423,8 +457,15 @@ public abstract class Move {
             for(final ChessPiece piece : afterMoveBoard.getCurrentMovingPlayer().getOpponent().getActivePieces()) {
                 builder.putPiece(piece);
             }
-            builder.putPiece(this.pawnToPromotion.getPromotedPiece().movePiece(this));
+            final ChessPiece promotedPiece = this.pawnToPromotion.getPromotedPiece().movePiece(this);
+            builder.putPiece(promotedPiece);
             builder.setMover(afterMoveBoard.getCurrentMovingPlayer().getTeam()); // player already changed in afterMoveBoard
+            // the consumed move already updated the key, only the pawn on the destination tile becomes the promoted
+            //  piece (the castling rights are taken out and added back by the new board):
+            builder.setZobristKey(afterMoveBoard.getZobristKey() ^
+                    Zobrist.castlingKey(afterMoveBoard.getCastlingRights()) ^ Zobrist.pieceKey(BitBoard.boardIndex(
+                    this.pawnToPromotion.getPieceTeam(), this.pawnToPromotion.getPieceType()), this.destinationCrd) ^
+                    Zobrist.pieceKey(promotedPiece));
             return builder.build();
         }
 
@@ -0,0 +1,20 @@
+package com.chessgame.movement;
+
+import com.chessgame.board.MoveGenerator;
+
+// A MoveBuffer holds one preallocated array of packed moves (see PackedMove) per ply of the AI search, so that the moves
+//  of every explored board can be generated without allocating anything. The moves of the board at a given ply (number
+//  of moves made since the root board) are written into the array of that ply, which stays untouched while the deeper
+//  plies are searched.
+public final class MoveBuffer {
+    private final int[][] plyMoves;
+
+    public MoveBuffer(final int maxPly) {
+        this.plyMoves = new int[maxPly + 1][MoveGenerator.MAX_MOVES];
+    }
+
+    // getMoves(ply) returns the move array of the given ply.
+    public int[] getMoves(final int ply) {
+        return this.plyMoves[ply];
+    }
+}
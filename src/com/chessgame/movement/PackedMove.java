@@ -0,0 +1,130 @@
+package com.chessgame.movement;
+
+import com.chessgame.board.BitBoard;
+import com.chessgame.board.ChessBoard;
+import com.chessgame.pieces.ChessPiece;
+
+// PackedMove encodes a move of the search board (see SearchBoard) into a single int, so that the AI search can generate,
+//  store and replay moves without creating Move objects:
+//  bits 0-5: current coordinate of the moving piece,
+//  bits 6-11: destination coordinate,
+//  bits 12-15: move flag (see the flag constants below),
+//  bits 16-19: board index (see BitBoard.boardIndex()) of the moving piece,
+//  bits 20-23: board index of the captured piece + 1 (0 if nothing is captured),
+//  bits 24-27: board index of the piece the pawn is promoted to + 1 (0 if it is not a promotion).
+// A packed move holds everything needed to both make and unmake it, and no reference to any board.
+public final class PackedMove {
+    public static final int NO_MOVE = 0; // never a real move (a piece cannot move onto its own tile)
+    public static final int NO_PIECE = -1; // captured or promoted piece of a move that does not capture or promote
+
+    // Move flags. The CAPTURE bit is set on every killer move and the PROMOTION bit on every pawn promotion:
+    public static final int QUIET = 0;
+    public static final int PAWN_DOUBLE = 1;
+    public static final int KING_SIDE_CASTLE = 2;
+    public static final int QUEEN_SIDE_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = CAPTURE | 1;
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = PROMOTION | CAPTURE;
+
+    private static final int CRD_MASK = 0x3F;
+    private static final int FIELD_MASK = 0xF;
+    private static final int DESTINATION_SHIFT = 6;
+    private static final int FLAG_SHIFT = 12;
+    private static final int PIECE_SHIFT = 16;
+    private static final int CAPTURED_SHIFT = 20;
+    private static final int PROMOTED_SHIFT = 24;
+
+    private PackedMove() {
+        throw new RuntimeException("ERROR: Not instantiable");
+    }
+
+    // create(curCrd, destCrd, flag, piece, capturedPiece, promotedPiece) returns the packed move of the piece with the
+    //  given board index moving from curCrd to destCrd. capturedPiece and promotedPiece are board indexes or NO_PIECE.
+    public static int create(final int curCrd, final int destCrd, final int flag, final int piece,
+                             final int capturedPiece, final int promotedPiece) {
+        return curCrd | (destCrd << DESTINATION_SHIFT) | (flag << FLAG_SHIFT) | (piece << PIECE_SHIFT) |
+                ((capturedPiece + 1) << CAPTURED_SHIFT) | ((promotedPiece + 1) << PROMOTED_SHIFT);
+    }
+
+    // getCurrentCrd(move) returns the current coordinate of the moving piece of the packed move.
+    public static int getCurrentCrd(final int move) {
+        return move & CRD_MASK;
+    }
+
+    // getDestinationCrd(move) returns the destination coordinate of the packed move.
+    public static int getDestinationCrd(final int move) {
+        return (move >>> DESTINATION_SHIFT) & CRD_MASK;
+    }
+
+    // getFlag(move) returns the move flag of the packed move.
+    public static int getFlag(final int move) {
+        return (move >>> FLAG_SHIFT) & FIELD_MASK;
+    }
+
+    // getMovingPiece(move) returns the board index of the moving piece of the packed move.
+    public static int getMovingPiece(final int move) {
+        return (move >>> PIECE_SHIFT) & FIELD_MASK;
+    }
+
+    // getCapturedPiece(move) returns the board index of the piece captured by the packed move, or NO_PIECE.
+    public static int getCapturedPiece(final int move) {
+        return ((move >>> CAPTURED_SHIFT) & FIELD_MASK) - 1;
+    }
+
+    // getPromotedPiece(move) returns the board index of the piece the pawn is promoted to, or NO_PIECE.
+    public static int getPromotedPiece(final int move) {
+        return ((move >>> PROMOTED_SHIFT) & FIELD_MASK) - 1;
+    }
+
+    // isKillerMove(move) checks if the packed move captures an enemy piece.
+    public static boolean isKillerMove(final int move) {
+        return (getFlag(move) & CAPTURE) != 0;
+    }
+
+    // isPromotion(move) checks if the packed move is a pawn promotion.
+    public static boolean isPromotion(final int move) {
+        return (getFlag(move) & PROMOTION) != 0;
+    }
+
+    // fromMove(move) returns the packed move equivalent to the given Move of a ChessBoard.
+    public static int fromMove(final Move move) {
+        final ChessPiece movingPiece = move.getMovingPiece();
+        final int piece = BitBoard.boardIndex(movingPiece.getPieceTeam(), movingPiece.getPieceType());
+        final int capturedPiece = move.getTargetedPiece() == null ? NO_PIECE :
+                BitBoard.boardIndex(move.getTargetedPiece().getPieceTeam(), move.getTargetedPiece().getPieceType());
+        final int flag;
+        int promotedPiece = NO_PIECE;
+        if (move instanceof Move.pawnPromotion) {
+            flag = move.isKillerMove() ? PROMOTION_CAPTURE : PROMOTION;
+            final ChessPiece promoted = ((Move.pawnPromotion) move).pawnToPromotion.getPromotedPiece();
+            promotedPiece = BitBoard.boardIndex(promoted.getPieceTeam(), promoted.getPieceType());
+        }
+        else if (move instanceof Move.EnPassantMove) {
+            flag = EN_PASSANT;
+        }
+        else if (move.isKillerMove()) {
+            flag = CAPTURE;
+        }
+        else if (move instanceof Move.PawnDoubleMove) {
+            flag = PAWN_DOUBLE;
+        }
+        else if (move instanceof Move.KingSideCastleMove) {
+            flag = KING_SIDE_CASTLE;
+        }
+        else if (move instanceof Move.QueenSideCastleMove) {
+            flag = QUEEN_SIDE_CASTLE;
+        }
+        else {
+            flag = QUIET;
+        }
+        return create(move.getCurrentCrd(), move.getDestinationCrd(), flag, piece, capturedPiece, promotedPiece);
+    }
+
+    // toMove(board, move) returns the legal Move of the given ChessBoard equivalent to the given packed move, or
+    //  Move.INVALID_MOVE if there is none.
+    public static Move toMove(final ChessBoard board, final int move) {
+        // a piece never has two different moves between the same two tiles (pawns are always promoted to a Queen):
+        return Move.MoveCreator.createMove(board, getCurrentCrd(move), getDestinationCrd(move));
+    }
+}
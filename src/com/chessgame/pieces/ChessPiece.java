@@ -1,10 +1,16 @@
 package com.chessgame.pieces;
 
 import com.chessgame.player.Team;
+import com.chessgame.board.BitBoard;
 import com.chessgame.board.ChessBoard;
 import com.chessgame.movement.Move;
+import com.google.common.collect.ImmutableList;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+
+import static com.chessgame.movement.Move.*;
 
 public abstract class ChessPiece {
     protected final int piecePosition;
@@ -67,6 +73,25 @@ public abstract class ChessPiece {
         return result;
     }
 
+    // targetMoves(board, attacks) returns a move to each tile of the given attack set that is not occupied by a piece of
+    //  the current piece's team: a normal move to an empty tile, or a killer move on an enemy piece.
+    protected Collection<Move> targetMoves(final ChessBoard board, final long attacks) {
+        final List<Move> legalMoves = new ArrayList<>();
+        final BitBoard bitBoard = board.getBitBoard();
+        // the tiles occupied by our own team can never be a destination:
+        long targets = attacks & ~bitBoard.getTeamOccupancy(this.pieceTeam);
+        for (; targets != BitBoard.EMPTY; targets &= targets - 1) {
+            final int destinationCrd = BitBoard.firstTile(targets);
+            if (!bitBoard.isTileOccupied(destinationCrd)) {
+                legalMoves.add(new NormalMove(board, this, destinationCrd));
+            }
+            else {
+                legalMoves.add(new NonPawnKillerMove(board, this, destinationCrd, board.getPiece(destinationCrd)));
+            }
+        }
+        return ImmutableList.copyOf(legalMoves);
+    }
+
     // movePiece() returns a new ChessPiece with the move applied on the current chess piece:
     public abstract ChessPiece movePiece(Move move);
 
@@ -1,20 +1,13 @@
 package com.chessgame.pieces;
 
 import com.chessgame.player.Team;
+import com.chessgame.board.AttackTables;
 import com.chessgame.board.ChessBoard;
-import com.chessgame.board.ChessTile;
 import com.chessgame.movement.Move;
-import com.google.common.collect.ImmutableList;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
-
-import static com.chessgame.movement.Move.*;
 
 public class King extends ChessPiece{
-    // all possible move coordinate adjustments relative to the current King piece coordinate on the chess board:
-    private final static int[] POSSIBLE_MOVE_REL_CRD= {-9, -8, -7, -1, 1, 7, 8, 9};
     // constructor when it is the piece's first move:
     public King(final int posn, final Team team) {
         super(pieceType.KING, posn, team, true);
@@ -24,50 +17,11 @@ public class King extends ChessPiece{
         super(pieceType.KING, posn, team, isFirstMove);
     }
 
-    // for general function purpose, see ChessPiece class file
+    // for general function purpose, see ChessPiece class file.
+    // The attack set of the King is a single lookup in the precomputed king attack table.
     @Override
-    public Collection<Move> allowedMoves(ChessBoard board) {
-        final List<Move> legalMoves = new ArrayList<>();
-        for(final int curCoordinate : POSSIBLE_MOVE_REL_CRD) {
-            final int realCoordinate = this.piecePosition + curCoordinate;
-            // EXCEPTION CASE: If the King is on the first or last column, then the following rules will not apply to it.
-            if (isOnFirstColumnInvalid(this.piecePosition, curCoordinate) ||
-                    isOnLastColumnInvalid(this.piecePosition, curCoordinate)) {
-                continue;
-            }
-            // if the current move coordinate is a valid coordinate on the chessgame board:
-            if(ChessBoard.isValidTileCoordinate(realCoordinate)) {
-                final ChessTile possibleDestinationTile = board.getTile(realCoordinate);
-                // if the current targeted potential move destination tile is not occupied:
-                if (!possibleDestinationTile.isTileOccupied()) {
-                    legalMoves.add(new NormalMove(board, this, realCoordinate));
-                }
-                // or if it is occupied:
-                else {
-                    final ChessPiece pieceAtTile = possibleDestinationTile.getPiece();
-                    final Team teamOfPieceAtTile = pieceAtTile.getPieceTeam();
-                    if (this.pieceTeam != teamOfPieceAtTile) {
-                        legalMoves.add(new NonPawnKillerMove(board, this, realCoordinate, pieceAtTile));
-                    }
-                }
-            }
-        }
-
-        return ImmutableList.copyOf(legalMoves);
-    }
-
-    // isOnFirstColumnValid(curPosition, movePosition) checks if the parameter current position is on the first column
-    //  of the chess board and if the parameter movement position is invalid because of the first column.
-    private static boolean isOnFirstColumnInvalid(final int curPosition, final int movePosition) {
-        return ChessBoard.FIRST_COLUMN[curPosition] && ((movePosition == -9) || (movePosition == -1) ||
-                (movePosition == 7));
-    }
-
-    // isOnLastColumnValid(curPosition, movePosition) checks if the parameter current position is on the last column
-    //  of the chess board and if the parameter movement position is invalid because of the last column.
-    private static boolean isOnLastColumnInvalid(final int curPosition, final int movePosition) {
-        return ChessBoard.LAST_COLUMN[curPosition] && ((movePosition == -7) || (movePosition == 1) ||
-                (movePosition == 9));
+    public Collection<Move> allowedMoves(final ChessBoard board) {
+        return targetMoves(board, AttackTables.kingAttacks(this.piecePosition));
     }
 
     // toString() returns the type of the current piece.
@@ -1,6 +1,8 @@
 package com.chessgame.pieces;
 
 import com.chessgame.player.Team;
+import com.chessgame.board.AttackTables;
+import com.chessgame.board.BitBoard;
 import com.chessgame.board.ChessBoard;
 import com.chessgame.movement.Move;
 import com.google.common.collect.ImmutableList;
@@ -12,8 +14,6 @@ import java.util.List;
 import static com.chessgame.movement.Move.*;
 
 public class Pawn extends ChessPiece{
-    // all possible move coordinate adjustments relative to the current Pawn piece coordinate on the chess board:
-    private final static int[] POSSIBLE_MOVE_REL_CRD= {7, 8, 9, 16};
     // constructor when it is the piece's first move:
     public Pawn(final int posn, final Team team) {
         super(pieceType.PAWN, posn, team, true);
@@ -27,99 +27,51 @@ public class Pawn extends ChessPiece{
     @Override
     public Collection<Move> allowedMoves(ChessBoard board) {
         final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int curCoordinate : POSSIBLE_MOVE_REL_CRD) {
-            // actual potential move coordinate of the current Pawn on the chessgame board depending on which Team:
-            final int realCoordinate = this.piecePosition + (curCoordinate * this.pieceTeam.getDirection());
-            // if the destination tile is not a valid tile coordinate, then skip it:
-            if (!ChessBoard.isValidTileCoordinate(realCoordinate)) {
-                continue;
+        final BitBoard bitBoard = board.getBitBoard();
+        // actual coordinate of the tile in front of the current Pawn on the chess board depending on which Team:
+        final int oneFrontTile = this.piecePosition + (8 * this.pieceTeam.getDirection());
+        // if the tile forward is not occupied, the pawn can move one tile forward:
+        if (ChessBoard.isValidTileCoordinate(oneFrontTile) && !bitBoard.isTileOccupied(oneFrontTile)) {
+            // if the pawn is moving towards a pawn promotion possible tile:
+            if(this.pieceTeam.isPromotionTile(oneFrontTile)) {
+                legalMoves.add(new pawnPromotion(new PawnMove(board, this, oneFrontTile)));
             }
-            // if the pawn is moving one tile forward, and the tile forward is not occupied:
-            if (curCoordinate == 8 && !board.getTile(realCoordinate).isTileOccupied()) {
-                // if the pawn is moving towards a pawn promotion possible tile:
-                if(this.pieceTeam.isPromotionTile(realCoordinate)) {
-                    legalMoves.add(new pawnPromotion(new PawnMove(board, this, realCoordinate)));
-                }
-                else {
-                    legalMoves.add(new PawnMove(board, this, realCoordinate));
-                }
+            else {
+                legalMoves.add(new PawnMove(board, this, oneFrontTile));
             }
             // if the pawn is moving its first move, and the pawn is part of the white team and on the second row OR
-            //  part of the back team and on the seventh row, and the pawn is moving two tiles forward:
-            else if (curCoordinate == 16 && this.isFirstMove() &&
+            //  part of the back team and on the seventh row, it can also move two tiles forward if the destination
+            //  tile (two tiles in front) is not occupied either:
+            final int twoFrontTile = oneFrontTile + (8 * this.pieceTeam.getDirection());
+            if (this.isFirstMove() &&
                     ((ChessBoard.SECOND_ROW[this.piecePosition] && this.getPieceTeam().isBlack()) ||
-                            (ChessBoard.SEVENTH_ROW[this.piecePosition] && this.getPieceTeam().isWhite()))) {
-                // Coordinate of the front tile:
-                final int oneFrontTile = this.piecePosition + (this.pieceTeam.getDirection() * 8);
-                // if the front tile AND the destination tile (two tiles in front) are not occupied,
-                //  then it is a valid move:
-                if (!board.getTile(oneFrontTile).isTileOccupied() && !board.getTile(realCoordinate).isTileOccupied()) {
-                    legalMoves.add(new PawnDoubleMove(board, this, realCoordinate));
-                }
+                            (ChessBoard.SEVENTH_ROW[this.piecePosition] && this.getPieceTeam().isWhite())) &&
+                    !bitBoard.isTileOccupied(twoFrontTile)) {
+                legalMoves.add(new PawnDoubleMove(board, this, twoFrontTile));
+            }
+        }
+        // the following are diagonal attack moves, taken from the precomputed pawn attack table:
+        final long attacks = AttackTables.pawnAttacks(this.pieceTeam, this.piecePosition);
+        // every attacked tile occupied by an enemy team chess piece is a valid attack move:
+        long targets = attacks & bitBoard.getOccupancy() & ~bitBoard.getTeamOccupancy(this.pieceTeam);
+        for (; targets != BitBoard.EMPTY; targets &= targets - 1) {
+            final int realCoordinate = BitBoard.firstTile(targets);
+            final ChessPiece pieceOnTarget = board.getPiece(realCoordinate);
+            // if the pawn is moving towards a pawn promotion possible tile:
+            if(this.pieceTeam.isPromotionTile(realCoordinate)) {
+                legalMoves.add(new pawnPromotion(new PawnKillerMove(board, this, realCoordinate, pieceOnTarget)));
             }
-            // the following are diagonal attack moves:
-                // if the pawn is attacking right and the pawn is not on the last column if with the white team OR the
-                //  pawn is not on the first column if with the black team:
-            else if (curCoordinate == 7 &&
-                        !((ChessBoard.LAST_COLUMN[this.piecePosition] && this.pieceTeam.isWhite()) ||
-                                (ChessBoard.FIRST_COLUMN[this.piecePosition] && this.pieceTeam.isBlack()))) {
-                // if the target tile is occupied...:
-                if(board.getTile(realCoordinate).isTileOccupied()) {
-                    final ChessPiece pieceOnTarget = board.getTile(realCoordinate).getPiece();
-                    //... with an enemy team chess piece, then it is a valid attack move:
-                    if(this.pieceTeam != pieceOnTarget.getPieceTeam()) {
-                        // if the pawn is moving towards a pawn promotion possible tile:
-                        if(this.pieceTeam.isPromotionTile(realCoordinate)) {
-                            legalMoves.add(new pawnPromotion(new PawnKillerMove(board, this, realCoordinate, pieceOnTarget)));
-                        }
-                        else {
-                            legalMoves.add(new PawnKillerMove(board, this, realCoordinate, pieceOnTarget));
-                        }
-                    }
-                }
-                // else if there is an en passant pawn:
-                else if(board.getEnPassantPawn() != null) {
-                    // if the enemy pawn is next to your pawn (on your right), then you can execute the en passant move:
-                    if(board.getEnPassantPawn().getPiecePosition() ==
-                            (this.piecePosition + (this.pieceTeam.getEnemyDirection()))) {
-                        final ChessPiece pieceOnTarget = board.getEnPassantPawn();
-                        if(this.pieceTeam != pieceOnTarget.getPieceTeam()) { // check that is is an enemy pawn
-                            legalMoves.add(new EnPassantMove(board, this, realCoordinate, pieceOnTarget));
-                        }
-                    }
-                }
+            else {
+                legalMoves.add(new PawnKillerMove(board, this, realCoordinate, pieceOnTarget));
             }
-            // if the pawn is attacking left and the pawn is not on the first column if with the white team OR the
-            //  pawn is not on the last column if with the black team:
-            else if (curCoordinate == 9 &&
-                    !((ChessBoard.LAST_COLUMN[this.piecePosition] && this.pieceTeam.isBlack()) ||
-                            (ChessBoard.FIRST_COLUMN[this.piecePosition] && this.pieceTeam.isWhite()))) {
-                // if the target tile is occupied...:
-                if(board.getTile(realCoordinate).isTileOccupied()) {
-                    final ChessPiece pieceOnTarget = board.getTile(realCoordinate).getPiece();
-                    //... with an enemy team chessgame piece, then it is a valid attack move:
-                    if(this.pieceTeam != pieceOnTarget.getPieceTeam()) {
-                        // if the pawn is moving towards a pawn promotion possible tile:
-                        if(this.pieceTeam.isPromotionTile(realCoordinate)) {
-                            legalMoves.add(new pawnPromotion(new PawnKillerMove(board, this, realCoordinate, pieceOnTarget)));
-                        }
-                        else {
-                            legalMoves.add(new PawnKillerMove(board, this, realCoordinate, pieceOnTarget));
-                        }
-                    }
-                }
-                // else if there is an en passant pawn:
-                else if(board.getEnPassantPawn() != null) {
-                    // if the enemy pawn is next to your pawn (on your left, then you can execute the en passant move:
-                    if(board.getEnPassantPawn().getPiecePosition() ==
-                            (this.piecePosition + (this.pieceTeam.getDirection()))) {
-                        final ChessPiece pieceOnTarget = board.getEnPassantPawn();
-                        if(this.pieceTeam != pieceOnTarget.getPieceTeam()) { // check that is is an enemy pawn
-                            legalMoves.add(new EnPassantMove(board, this, realCoordinate, pieceOnTarget));
-                        }
-                    }
-                }
+        }
+        // if there is an enemy en passant pawn next to the pawn, then the pawn can attack the (empty) tile behind it:
+        final Pawn enPassantPawn = board.getEnPassantPawn();
+        if(enPassantPawn != null && this.pieceTeam != enPassantPawn.getPieceTeam()) {
+            final int realCoordinate = enPassantPawn.getPiecePosition() + (8 * this.pieceTeam.getDirection());
+            if((attacks & BitBoard.tileMask(realCoordinate)) != BitBoard.EMPTY &&
+                    !bitBoard.isTileOccupied(realCoordinate)) {
+                legalMoves.add(new EnPassantMove(board, this, realCoordinate, enPassantPawn));
             }
         }
         return ImmutableList.copyOf(legalMoves);
@@ -15,8 +15,8 @@ import static com.chessgame.movement.Move.*;
 
 public class BlackPlayer extends Player {
 
-    public BlackPlayer(final ChessBoard board, final Collection<Move> whiteMoves, final Collection<Move> blackMoves) {
-        super(board, blackMoves, whiteMoves);
+    public BlackPlayer(final ChessBoard board) {
+        super(board);
     }
 
     // for general function purpose, see Player class file:
@@ -36,8 +36,7 @@ public class BlackPlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateCastlingMoves(final Collection<Move> legalMoves,
-                                                      final Collection<Move> opponentLegalMoves) {
+    protected Collection<Move> calculateCastlingMoves() {
         final List<Move> castlingMoves = new ArrayList<>();
         // Condition for a castling move: the player must not be in check and it must be the King's first move.
         if(this.king.isFirstMove() && !this.isCheck()) {
@@ -49,8 +48,8 @@ public class BlackPlayer extends Player {
                 if(tileOfRook.isTileOccupied() && tileOfRook.getPiece().getPieceType().isRook() &&
                         tileOfRook.getPiece().isFirstMove()) {
                     // AND, none of the empty destination cases is targeted by enemy's pieces:
-                    if(Player.attackOnTile(5, opponentLegalMoves).isEmpty() &&
-                            Player.attackOnTile(6, opponentLegalMoves).isEmpty()) {
+                    if(!this.board.isTileAttacked(5, Team.WHITE) &&
+                            !this.board.isTileAttacked(6, Team.WHITE)) {
                         // adding a new King side castling move with the corresponding destination coordinates for the
                         //  King and Rook for the black team:
                         castlingMoves.add(new KingSideCastleMove(this.board, this.king, 6,
@@ -67,8 +66,8 @@ public class BlackPlayer extends Player {
                 if(tileOfRook.isTileOccupied() && tileOfRook.getPiece().getPieceType().isRook() &&
                         tileOfRook.getPiece().isFirstMove()) {
                     // AND, none of the empty destination cases is targeted by enemy's pieces:
-                    if(Player.attackOnTile(2, opponentLegalMoves).isEmpty() &&
-                            Player.attackOnTile(3, opponentLegalMoves).isEmpty()) {
+                    if(!this.board.isTileAttacked(2, Team.WHITE) &&
+                            !this.board.isTileAttacked(3, Team.WHITE)) {
                         // adding a new Queen side castling move with the corresponding destination coordinates for the
                         //  King and Rook for the white team:
                         castlingMoves.add(new QueenSideCastleMove(this.board, this.king, 2,
@@ -1,6 +1,8 @@
 package com.chessgame.player;
 
 import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.SearchBoard;
 import com.chessgame.movement.Move;
 import com.chessgame.movement.BoardUpdate;
 import com.chessgame.pieces.ChessPiece;
@@ -8,41 +10,21 @@ import com.chessgame.pieces.King;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
 
 public abstract class Player {
     protected final ChessBoard board;
     protected final King king;
-    protected final Collection<Move> legalMoves;
-    private final boolean isInCheck;
+    private volatile Collection<Move> legalMoves; // computed on first access
+    private volatile Boolean hasEscapeMove; // computed on first access
     private boolean hasCastled;
 
-    public Player (final ChessBoard board, final Collection<Move> myMoves, final Collection<Move> opponentMoves) {
+    public Player (final ChessBoard board) {
         this.board = board;
         this.king = setKing();
-        // Get all our possible normal legal moves and all our possible castling moves:
-        this.legalMoves = ImmutableList.copyOf(Iterables.concat(myMoves, calculateCastlingMoves(myMoves, opponentMoves)));
-        // if there is a possible attack on the tile where the King is, then the player is in Check.
-        this.isInCheck = !Player.attackOnTile(this.king.getPiecePosition(), opponentMoves).isEmpty();
         this.hasCastled = false;
     }
 
-    // attackOnTile() returns all the possible attack moves on the selected tile.
-    protected static Collection<Move> attackOnTile(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = new ArrayList<>();
-        // checks all moves in the collection, and if there is a move in which its destination has the same tile
-        //  coordinate (tile index number) as the piece's position (piece coordinate index), then the move is attacking
-        //  the piece (the move is defined as an attack move):
-        for (final Move move: moves) {
-            if (piecePosition == move.getDestinationCrd()) {
-                attackMoves.add(move);
-            }
-        }
-        return ImmutableList.copyOf(attackMoves);
-    }
-
     // setKing() returns the King piece on the board of the current player.
     private King setKing() {
         for (final ChessPiece piece : getActivePieces()) {
@@ -60,27 +42,35 @@ public abstract class Player {
 
     // getLegalMoves() returns the collection of legal moves of the current player.
     public Collection<Move> getLegalMoves() {
-        return this.legalMoves;
+        Collection<Move> moves = this.legalMoves;
+        if (moves == null) {
+            // Get all our possible normal legal moves and all our possible castling moves:
+            moves = ImmutableList.copyOf(Iterables.concat(this.board.getPiecesMoves(getTeam()),
+                    calculateCastlingMoves()));
+            this.legalMoves = moves;
+        }
+        return moves;
     }
 
     // isLegalMove(move) checks if the parameter Move is a legal move.
     public boolean isLegalMove(final Move move) {
-        return this.legalMoves.contains(move);
+        return getLegalMoves().contains(move);
     }
 
     // isCheck() checks if the current player is in check.
     public boolean isCheck() {
-        return this.isInCheck;
+        // if there is a possible attack on the tile where the King is, then the player is in Check.
+        return this.board.isTileAttacked(this.king.getPiecePosition(), getTeam().getEnemyTeam());
     }
 
     // isCheckMate() checks if the current player is in check mate.
     public boolean isCheckMate() {
-        return this.isInCheck && !hasEscapeMove();
+        return isCheck() && !hasEscapeMove();
     }
 
     // isStaleMate() checks if the current game is in stale mate (draw game).
     public boolean isStaleMate() {
-        return !this.isInCheck && !hasEscapeMove();
+        return !isCheck() && !hasEscapeMove();
     }
 
     // castled() changes hasCastled to true when executing the castling move.
@@ -93,18 +83,18 @@ public abstract class Player {
         return this.hasCastled;
     }
 
-    // hasEscapeMove() checks if the current player has an escape move.
+    // hasEscapeMove() checks if the current player has an escape move, i.e. at least one move that does not leave his
+    //  King in check.
     protected boolean hasEscapeMove() {
-        // We verify individually each move in all the potential legal moves, and if there exists a move that is
-        //  updatable (can be completed), then the player has a possible escape move:
-        for (final Move move : this.legalMoves) {
-            // imaginary move to verify if it can be completed:
-            final BoardUpdate verificationTransition = makeMove(move);
-            if(verificationTransition.getMoveStatus().isCompleted()) {
-                return true;
-            }
+        Boolean hasEscapeMove = this.hasEscapeMove;
+        if (hasEscapeMove == null) {
+            // The strictly legal moves are generated on a search copy of the board from the pinned pieces and the
+            //  checking pieces, so no move has to be executed to find out if it can be completed:
+            hasEscapeMove = MoveGenerator.hasLegalMove(new SearchBoard(this.board), getTeam(),
+                    new int[MoveGenerator.MAX_MOVES], 0);
+            this.hasEscapeMove = hasEscapeMove;
         }
-        return false;
+        return hasEscapeMove;
     }
 
     // makeMove(move) makes a move on the chess board (updated the current ChessBoard with a new ChessBoard with the
@@ -116,13 +106,10 @@ public abstract class Player {
         }
         // POTENTIAL UPDATED new ChessBoard after making the move:
         final ChessBoard updateBoard = move.executeMove();
-        // all the enemy attacks on the current player's King on the CURRENT chess board:
-        final Collection<Move> attacksOnKing =
-                Player.attackOnTile(updateBoard.getCurrentMovingPlayer().getOpponent().getKing().getPiecePosition(),
-                        updateBoard.getCurrentMovingPlayer().getLegalMoves());
-        // if there is at least one attack on the current player's King, then the current player is in Check and the
-        //  move is not executed:
-        if(!attacksOnKing.isEmpty()) {
+        // if there is an enemy attack on the current player's King on the CURRENT chess board, then the current player
+        //  is in Check and the move is not executed. The attack is found from the King's tile, without generating any
+        //  of the enemy's moves:
+        if(updateBoard.isTileAttacked(updateBoard.getBitBoard().getKingTile(getTeam()), getTeam().getEnemyTeam())) {
             return new BoardUpdate(this.board, Move.MoveStatus.IN_CHECK);
         }
         // otherwise, the current ChessBoard is updated to the new ChessBoard with the move COMPLETED and executed on
@@ -131,7 +118,7 @@ public abstract class Player {
     }
 
     // calculateCastlingMoves() calculates all the castling moves available for the current player on the board.
-    protected abstract Collection<Move> calculateCastlingMoves(Collection<Move> legalMoves, Collection<Move> opponentLegalMoves);
+    protected abstract Collection<Move> calculateCastlingMoves();
 
     // getActivePieces() returns all the current active pieces on the chess board for this player.
     public abstract Collection<ChessPiece> getActivePieces();
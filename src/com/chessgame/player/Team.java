@@ -24,6 +24,11 @@ public enum Team {
             return false;
         }
 
+        @Override
+        public Team getEnemyTeam() {
+            return BLACK;
+        }
+
         @Override
         public Player selectPlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer) {
             return whitePlayer;
@@ -55,6 +60,11 @@ public enum Team {
             return true;
         }
 
+        @Override
+        public Team getEnemyTeam() {
+            return WHITE;
+        }
+
         @Override
         public Player selectPlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer) {
             return blackPlayer;
@@ -77,6 +87,9 @@ public enum Team {
     // isBlack() checks if the piece is in the black team.
     public abstract boolean isBlack();
 
+    // getEnemyTeam() returns the opposing team.
+    public abstract Team getEnemyTeam();
+
     // selectPlayer() returns the corresponding player associated with the specific Team.
     public abstract Player selectPlayer(final WhitePlayer whitePlayer, final BlackPlayer blackPlayer);
 
@@ -14,8 +14,8 @@ import java.util.List;
 import static com.chessgame.movement.Move.*;
 
 public class WhitePlayer extends Player {
-    public WhitePlayer(final ChessBoard board, final Collection<Move> whiteMoves, final Collection<Move> blackMoves) {
-        super(board, whiteMoves, blackMoves);
+    public WhitePlayer(final ChessBoard board) {
+        super(board);
     }
 
     // for general function purpose, see Player class file:
@@ -35,8 +35,7 @@ public class WhitePlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateCastlingMoves(final Collection<Move> legalMoves,
-                                                      final Collection<Move> opponentLegalMoves) {
+    protected Collection<Move> calculateCastlingMoves() {
         final List<Move> castlingMoves = new ArrayList<>();
         // Condition for a castling move: the player must not be in check and it must be the King's first move.
         if(this.king.isFirstMove() && !this.isCheck()) {
@@ -48,8 +47,8 @@ public class WhitePlayer extends Player {
                 if(tileOfRook.isTileOccupied() && tileOfRook.getPiece().getPieceType().isRook() &&
                         tileOfRook.getPiece().isFirstMove()) {
                     // AND, none of the empty destination cases is targeted by enemy's pieces:
-                    if(Player.attackOnTile(61, opponentLegalMoves).isEmpty() &&
-                            Player.attackOnTile(62, opponentLegalMoves).isEmpty()) {
+                    if(!this.board.isTileAttacked(61, Team.BLACK) &&
+                            !this.board.isTileAttacked(62, Team.BLACK)) {
                         // adding a new King side castling move with the corresponding destination coordinates for the
                         //  King and Rook for the white team:
                         castlingMoves.add(new KingSideCastleMove(this.board, this.king, 62,
@@ -66,8 +65,8 @@ public class WhitePlayer extends Player {
                 if(tileOfRook.isTileOccupied() && tileOfRook.getPiece().getPieceType().isRook() &&
                         tileOfRook.getPiece().isFirstMove()) {
                     // AND, none of the empty destination cases is targeted by enemy's pieces:
-                    if(Player.attackOnTile(58, opponentLegalMoves).isEmpty() &&
-                            Player.attackOnTile(59, opponentLegalMoves).isEmpty()) {
+                    if(!this.board.isTileAttacked(58, Team.BLACK) &&
+                            !this.board.isTileAttacked(59, Team.BLACK)) {
                         // adding a new Queen side castling move with the corresponding destination coordinates for the
                         //  King and Rook for the white team:
                         castlingMoves.add(new QueenSideCastleMove(this.board, this.king, 58,
@@ -0,0 +1,683 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.BitBoard;
+import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.SearchBoard;
+import com.chessgame.movement.Move;
+import com.chessgame.movement.MoveBuffer;
+import com.chessgame.movement.PackedMove;
+import com.chessgame.pieces.ChessPiece;
+import com.chessgame.player.Team;
+
+import java.util.Arrays;
+
+// AlphaBeta is the Minimax algorithm with alpha-beta pruning: each tree level is searched within a window (alpha, beta)
+//  of the values that can still change the choice of a move above it. alpha is the value the maximizing (White) player
+//  is already sure to get, beta the value the minimizing (Black) player is already sure to get. As soon as a move
+//  proves a board is outside of the window (a refutation), the remaining moves of that board are not searched.
+// The value of every root move is found exactly whenever it can tie or beat the best move so far, so AlphaBeta returns
+//  the same best move as Minimax (the last one of the best value), for a fraction of the boards searched.
+// The boards searched are remembered in a transposition table: a board searched again with the same number of tree
+//  levels below it is answered from the table when its stored bound is enough. The moves of every other board are
+//  searched in the order of MoveOrdering, starting with the best move stored in the table.
+// With quiescence search on, the boards at the last tree level are not scored right away: the captures and promotions
+//  are searched on until the board is quiet, so that a board is never scored in the middle of an exchange of pieces.
+//  The best move found then differs from Minimax, which scores those boards as they are.
+// With principal variation search on (see PrincipalVariationSearch), the moves after the first one of each board are
+//  only searched with a null window, expecting the first move to stay the best one.
+// The selective search options (NULL_MOVE_PRUNING, LATE_MOVE_REDUCTIONS, FUTILITY_PRUNING, RAZORING) skip or shorten
+//  the search of boards and moves unlikely to change the result, using the EvaluateBoardScore margins. Each one can be
+//  turned on alone, and getSelectiveCount() tells how often it fired. With any of them on, the best move found can
+//  differ from Minimax.
+public class AlphaBeta implements Algorithms {
+    static final int INFINITE_SCORE = 1000000000; // higher than any board score (check mate included)
+    static final int NO_MOVE_INDEX = -1; // returned by searchRoot() when the search was stopped
+    // Selective search options, one bit each:
+    public static final int NULL_MOVE_PRUNING = 1; // cut off a board still refuted after the moving team passes
+    public static final int LATE_MOVE_REDUCTIONS = 2; // search the quiet moves ordered last one tree level less
+    public static final int FUTILITY_PRUNING = 4; // skip the quiet moves of a frontier board far below the window
+    public static final int RAZORING = 8; // only search the captures and promotions of a frontier board far below it
+    public static final int SELECTIVE_SEARCH = NULL_MOVE_PRUNING | LATE_MOVE_REDUCTIONS | FUTILITY_PRUNING | RAZORING;
+    private static final int NODES_PER_TIME_CHECK = 1024;
+    private static final int MAX_QUIESCENCE_PLY = 32; // captures searched past the last tree level at most
+    // A capture is not searched if even winning the captured piece plus this margin cannot bring the board score back
+    //  into the window (delta pruning):
+    private static final int DELTA_MARGIN = 200;
+    private static final ChessPiece.pieceType[] PIECE_TYPES = ChessPiece.pieceType.values();
+    private static final int NULL_MOVE_REDUCTION = 2; // tree levels skipped by the search after a null move
+    private static final int LATE_MOVE_INDEX = 3; // moves of a board searched before the late moves
+    private static final int LATE_MOVE_MIN_TREE_LEVEL = 3; // late moves are not reduced closer to the last tree level
+    private static final int FRONTIER_TREE_LEVEL = 2; // futility pruning and razoring only apply this close to the end
+    private static final int NO_SCORE = Integer.MIN_VALUE; // static board score not computed
+
+    private final BoardScore boardScore;
+    private final int treeLevel;
+    private final MoveBuffer moveBuffer; // preallocated move arrays, one per tree level
+    private final TranspositionTable transpositionTable;
+    private final MoveOrdering moveOrdering;
+    private final boolean isQuiescent; // true if the last tree level is extended by a quiescence search
+    private final boolean isPrincipalVariation; // true if the moves after the first one are searched with null windows
+    private final int selectiveOptions; // selective search options turned on (see NULL_MOVE_PRUNING...)
+    private final long[] selectiveCounts; // times each selective search option fired since newSearch()
+    private long stopTime; // System.currentTimeMillis() at which the search stops
+    private boolean isStopped;
+    private volatile boolean isAborted; // set by another thread to stop the search before its stop time (see abort())
+    private long nodeCount; // boards searched since newSearch()
+    private int rootBestIndex; // best move index found by the last searchRoot(..., alpha, beta, ...)
+
+    public AlphaBeta(final int treeLevel) {
+        this(treeLevel, false);
+    }
+
+    public AlphaBeta(final int treeLevel, final boolean isQuiescent) {
+        this(treeLevel, isQuiescent, 0);
+    }
+
+    // selectiveOptions is a combination of NULL_MOVE_PRUNING, LATE_MOVE_REDUCTIONS, FUTILITY_PRUNING and RAZORING.
+    public AlphaBeta(final int treeLevel, final boolean isQuiescent, final int selectiveOptions) {
+        this(treeLevel, isQuiescent, false, selectiveOptions, new TranspositionTable(Minimax.TRANSPOSITION_TABLE_MB));
+    }
+
+    // AlphaBeta(treeLevel, isQuiescent, selectiveOptions, boardScore) scores the boards with the given board score
+    //  (e.g. an NnueBoardScore) instead of EvaluateBoardScore. The board score must not be shared with another search.
+    public AlphaBeta(final int treeLevel, final boolean isQuiescent, final int selectiveOptions,
+                     final BoardScore boardScore) {
+        this(treeLevel, isQuiescent, false, selectiveOptions,
+                new TranspositionTable(Minimax.TRANSPOSITION_TABLE_MB), boardScore);
+    }
+
+    AlphaBeta(final int treeLevel, final boolean isQuiescent, final boolean isPrincipalVariation,
+              final int selectiveOptions, final TranspositionTable transpositionTable) {
+        this(treeLevel, isQuiescent, isPrincipalVariation, selectiveOptions, transpositionTable,
+                new EvaluateBoardScore());
+    }
+
+    // treeLevel is the maximum tree level searchRoot() can be asked to search. With isPrincipalVariation, the first move
+    //  of each board is searched with the full window, and every other move with a null window (alpha, alpha + 1) that
+    //  only proves it is not better, searched again with the full window if it turns out to be.
+    AlphaBeta(final int treeLevel, final boolean isQuiescent, final boolean isPrincipalVariation,
+              final int selectiveOptions, final TranspositionTable transpositionTable, final BoardScore boardScore) {
+        this.boardScore = boardScore;
+        this.treeLevel = treeLevel;
+        this.isQuiescent = isQuiescent;
+        this.isPrincipalVariation = isPrincipalVariation;
+        this.selectiveOptions = selectiveOptions & SELECTIVE_SEARCH;
+        this.selectiveCounts = new long[Integer.bitCount(SELECTIVE_SEARCH)];
+        // the quiescence search goes on past the last tree level:
+        final int maxPly = isQuiescent ? treeLevel + MAX_QUIESCENCE_PLY : treeLevel;
+        this.moveBuffer = new MoveBuffer(maxPly);
+        this.transpositionTable = transpositionTable;
+        this.moveOrdering = new MoveOrdering(maxPly);
+        this.stopTime = Long.MAX_VALUE;
+    }
+
+    @Override
+    public Move runAlgorithm(final ChessBoard board) {
+        final SearchBoard searchBoard = new SearchBoard(board);
+        newSearch();
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int moveCount = MoveGenerator.generateLegalMoves(searchBoard, searchBoard.getCurrentMover(), moves, 0);
+        if(moveCount == 0) {
+            return null;
+        }
+        final int[] order = new int[moveCount];
+        for(int i = 0; i < moveCount; i++) {
+            order[i] = i;
+        }
+        final int bestIndex = searchRoot(searchBoard, this.treeLevel, moves, order, moveCount, Long.MAX_VALUE);
+        return PackedMove.toMove(board, moves[bestIndex]);
+    }
+
+    @Override
+    public String toString() {
+        return "AlphaBeta";
+    }
+
+    // getNodeCount() returns the number of boards searched by the last runAlgorithm().
+    public long getNodeCount() {
+        return this.nodeCount;
+    }
+
+    // getSelectiveCount(option) returns how many times the given selective search option (NULL_MOVE_PRUNING...) fired
+    //  during the last runAlgorithm(): boards cut off by a null move or by razoring, late moves reduced, quiet moves
+    //  skipped by futility pruning.
+    public long getSelectiveCount(final int option) {
+        return this.selectiveCounts[Integer.numberOfTrailingZeros(option)];
+    }
+
+    // newSearch() prepares the transposition table and the move ordering for the search of a new board.
+    void newSearch() {
+        this.transpositionTable.newSearch();
+        newThreadSearch();
+    }
+
+    // newThreadSearch() prepares the move ordering for the search of a new board, leaving the transposition table as
+    //  it is: for an AlphaBeta sharing its table with others searching the same board (see LazySmp).
+    void newThreadSearch() {
+        this.moveOrdering.newSearch();
+        this.nodeCount = 0;
+        Arrays.fill(this.selectiveCounts, 0L);
+        this.isAborted = false;
+    }
+
+    // abort() stops the current search (from another thread) as if its stop time was reached, and every search until
+    //  the next newSearch() or newThreadSearch().
+    void abort() {
+        this.isAborted = true;
+    }
+
+    // setStopTime(stopTime) sets the System.currentTimeMillis() at which the following minValue() and maxValue() calls
+    //  stop (searchRoot() sets its own).
+    void setStopTime(final long stopTime) {
+        this.stopTime = stopTime;
+        this.isStopped = false;
+    }
+
+    // isStopped() checks if the last search stopped before it was done: its values are then meaningless.
+    boolean isStopped() {
+        return this.isStopped;
+    }
+
+    // searchRoot(board, treeLevel, moves, order, moveCount, stopTime) searches the given legal moves of the board down to
+    //  the given tree level, in the given order (order holds indexes of moves), and returns the index in moves of the
+    //  best move: the one Minimax would choose, i.e. the last move in moves of the best value, whatever the search order.
+    //  Returns NO_MOVE_INDEX if System.currentTimeMillis() reaches stopTime before the search is done.
+    int searchRoot(final SearchBoard board, final int treeLevel, final int[] moves, final int[] order,
+                   final int moveCount, final long stopTime) {
+        this.stopTime = stopTime;
+        this.isStopped = false;
+        final Team currentMover = board.getCurrentMover();
+        int bestIndex = NO_MOVE_INDEX;
+        int bestValue = 0;
+        for(int i = 0; i < moveCount; i++) {
+            final int index = order[i];
+            board.make(moves[index]);
+            final int currentValue;
+            // a move only has to be searched precisely enough to know if it replaces the best move so far: on a tie,
+            //  the move coming last in moves wins, so the window starts (White) or ends (Black) just past the best
+            //  value for those moves and right on it for the others. The value is exact whenever it replaces it.
+            if(bestIndex == NO_MOVE_INDEX) {
+                currentValue = currentMover.isWhite() ?
+                        minValue(board, treeLevel - 1, -INFINITE_SCORE, INFINITE_SCORE) :
+                        maxValue(board, treeLevel - 1, -INFINITE_SCORE, INFINITE_SCORE);
+            }
+            else {
+                final int tieMargin = index > bestIndex ? 1 : 0;
+                currentValue = currentMover.isWhite() ?
+                        minValue(board, treeLevel - 1, bestValue - tieMargin, INFINITE_SCORE) :
+                        maxValue(board, treeLevel - 1, -INFINITE_SCORE, bestValue + tieMargin);
+            }
+            board.unmake(moves[index]);
+            if(this.isStopped) {
+                return NO_MOVE_INDEX;
+            }
+            if(bestIndex == NO_MOVE_INDEX ||
+                    (currentMover.isWhite() ? currentValue > bestValue : currentValue < bestValue) ||
+                    (currentValue == bestValue && index > bestIndex)) {
+                bestValue = currentValue;
+                bestIndex = index;
+            }
+        }
+        return bestIndex;
+    }
+
+    // searchRoot(board, treeLevel, moves, order, moveCount, alpha, beta, stopTime) searches the given legal moves of the
+    //  board down to the given tree level within the given window, in the given order (order holds indexes of moves),
+    //  and returns the value of the board: a value <= alpha or >= beta is only a bound of the value. The index in moves
+    //  of the best move is then given by getRootBestIndex() (only meaningful if the value is inside the window). Returns
+    //  0 with getRootBestIndex() == NO_MOVE_INDEX if System.currentTimeMillis() reaches stopTime before the search is
+    //  done.
+    int searchRoot(final SearchBoard board, final int treeLevel, final int[] moves, final int[] order,
+                   final int moveCount, int alpha, int beta, final long stopTime) {
+        this.stopTime = stopTime;
+        this.isStopped = false;
+        this.rootBestIndex = NO_MOVE_INDEX;
+        final boolean isMaximizing = board.getCurrentMover().isWhite();
+        int bestIndex = NO_MOVE_INDEX;
+        int bestValue = isMaximizing ? -INFINITE_SCORE : INFINITE_SCORE;
+        for(int i = 0; i < moveCount; i++) {
+            final int index = order[i];
+            board.make(moves[index]);
+            final int currentValue = isMaximizing ? minChildValue(board, treeLevel - 1, alpha, beta, i == 0) :
+                    maxChildValue(board, treeLevel - 1, alpha, beta, i == 0);
+            board.unmake(moves[index]);
+            if(this.isStopped) {
+                return 0;
+            }
+            if(isMaximizing ? currentValue > bestValue : currentValue < bestValue) {
+                bestValue = currentValue;
+                bestIndex = index;
+                if(isMaximizing ? bestValue >= beta : bestValue <= alpha) {
+                    break;
+                }
+                if(isMaximizing) {
+                    alpha = Math.max(alpha, bestValue);
+                }
+                else {
+                    beta = Math.min(beta, bestValue);
+                }
+            }
+        }
+        this.rootBestIndex = bestIndex;
+        return bestValue;
+    }
+
+    // getRootBestIndex() returns the index of the best move found by the last searchRoot(..., alpha, beta, ...).
+    int getRootBestIndex() {
+        return this.rootBestIndex;
+    }
+
+    // minValue(board, treeLevel, alpha, beta) returns the minimum value on the specified tree level, or a value <= alpha
+    //  as soon as a move proves that the maximizing player above will never let the game reach this board.
+    public int minValue(final SearchBoard board, final int treeLevel, final int alpha, int beta) {
+        if(isTimeOver()) {
+            return 0;
+        }
+        if(treeLevel == 0) {
+            return this.isQuiescent ? minQuiescence(board, alpha, beta, MAX_QUIESCENCE_PLY) :
+                    this.boardScore.score(board, treeLevel);
+        }
+        final long boardKey = board.getZobristKey();
+        final long entry = this.transpositionTable.probe(boardKey);
+        if(isEnoughEntry(entry, treeLevel, alpha, beta)) {
+            return TranspositionTable.getScore(entry);
+        }
+        final boolean isCheck = this.selectiveOptions != 0 && board.isCheck();
+        final int staticScore = staticScore(board, treeLevel, isCheck);
+        // razoring: far above beta, only captures and promotions could still bring the board back into the window
+        if(isSelective(RAZORING, treeLevel <= FRONTIER_TREE_LEVEL && staticScore != NO_SCORE &&
+                staticScore - EvaluateBoardScore.razoringMargin(treeLevel) >= beta)) {
+            final int value = this.isQuiescent ? minQuiescence(board, beta - 1, beta, MAX_QUIESCENCE_PLY) : staticScore;
+            if(this.isStopped) {
+                return 0;
+            }
+            if(value >= beta) {
+                this.selectiveCounts[Integer.numberOfTrailingZeros(RAZORING)]++;
+                return value;
+            }
+        }
+        // null move pruning: if the minimizing player still gets down to alpha after passing, a real move will too
+        if(isSelective(NULL_MOVE_PRUNING, treeLevel > NULL_MOVE_REDUCTION && staticScore != NO_SCORE &&
+                staticScore <= alpha && !board.isNullMove() && hasPieces(board, board.getCurrentMover()))) {
+            board.makeNullMove();
+            final int value = maxValue(board, treeLevel - 1 - NULL_MOVE_REDUCTION, alpha, alpha + 1);
+            board.unmakeNullMove();
+            if(this.isStopped) {
+                return 0;
+            }
+            if(value <= alpha) {
+                this.selectiveCounts[Integer.numberOfTrailingZeros(NULL_MOVE_PRUNING)]++;
+                return alpha;
+            }
+        }
+        final int[] moves = this.moveBuffer.getMoves(board.getPly());
+        final int moveCount = MoveGenerator.generateLegalMoves(board, board.getCurrentMover(), moves, 0);
+        // no legal move means the game is over (check mate or tie):
+        if(moveCount == 0) {
+            return this.boardScore.score(board, treeLevel);
+        }
+        final int[] scores = this.moveOrdering.scoreMoves(moves, moveCount, entry, board.getPly());
+        final int originalBeta = beta;
+        // a quiet move cannot bring the score of a frontier board down by more than the futility margin:
+        final int futilityValue = staticScore == NO_SCORE || treeLevel > FRONTIER_TREE_LEVEL ? -INFINITE_SCORE :
+                staticScore - EvaluateBoardScore.futilityMargin(treeLevel);
+        int currentLowestValue = INFINITE_SCORE;
+        int bestMove = PackedMove.NO_MOVE;
+        for(int i = 0; i < moveCount; i++) {
+            MoveOrdering.pickMove(moves, scores, i, moveCount);
+            board.make(moves[i]);
+            final boolean isQuiet = this.selectiveOptions != 0 && !isCheck && isQuietMove(board, moves[i]);
+            if(isSelective(FUTILITY_PRUNING, isQuiet && i > 0 && futilityValue >= beta)) {
+                board.unmake(moves[i]);
+                this.selectiveCounts[Integer.numberOfTrailingZeros(FUTILITY_PRUNING)]++;
+                currentLowestValue = Math.min(currentLowestValue, futilityValue);
+                continue;
+            }
+            int currentValue = 0;
+            boolean isFailHigh = false;
+            // late move reductions: a quiet move ordered this late is first searched one tree level less
+            if(isSelective(LATE_MOVE_REDUCTIONS, isQuiet && i >= LATE_MOVE_INDEX &&
+                    treeLevel >= LATE_MOVE_MIN_TREE_LEVEL)) {
+                this.selectiveCounts[Integer.numberOfTrailingZeros(LATE_MOVE_REDUCTIONS)]++;
+                currentValue = maxValue(board, treeLevel - 2, beta - 1, beta);
+                isFailHigh = currentValue >= beta;
+            }
+            if(!isFailHigh) {
+                currentValue = maxChildValue(board, treeLevel - 1, alpha, beta, i == 0);
+            }
+            board.unmake(moves[i]);
+            if(this.isStopped) {
+                return 0;
+            }
+            if(currentValue < currentLowestValue) {
+                currentLowestValue = currentValue;
+                bestMove = moves[i];
+                // refutation: the maximizing player already has a better choice than this board
+                if(currentLowestValue <= alpha) {
+                    this.moveOrdering.refutation(bestMove, board.getPly(), treeLevel);
+                    break;
+                }
+                beta = Math.min(beta, currentLowestValue);
+            }
+        }
+        storeEntry(boardKey, treeLevel, currentLowestValue, alpha, originalBeta, bestMove);
+        return currentLowestValue;
+    }
+
+    // maxValue(board, treeLevel, alpha, beta) returns the maximum value on the specified tree level, or a value >= beta
+    //  as soon as a move proves that the minimizing player above will never let the game reach this board.
+    public int maxValue(final SearchBoard board, final int treeLevel, int alpha, final int beta) {
+        if(isTimeOver()) {
+            return 0;
+        }
+        if(treeLevel == 0) {
+            return this.isQuiescent ? maxQuiescence(board, alpha, beta, MAX_QUIESCENCE_PLY) :
+                    this.boardScore.score(board, treeLevel);
+        }
+        final long boardKey = board.getZobristKey();
+        final long entry = this.transpositionTable.probe(boardKey);
+        if(isEnoughEntry(entry, treeLevel, alpha, beta)) {
+            return TranspositionTable.getScore(entry);
+        }
+        final boolean isCheck = this.selectiveOptions != 0 && board.isCheck();
+        final int staticScore = staticScore(board, treeLevel, isCheck);
+        // razoring: far below alpha, only captures and promotions could still bring the board back into the window
+        if(isSelective(RAZORING, treeLevel <= FRONTIER_TREE_LEVEL && staticScore != NO_SCORE &&
+                staticScore + EvaluateBoardScore.razoringMargin(treeLevel) <= alpha)) {
+            final int value = this.isQuiescent ? maxQuiescence(board, alpha, alpha + 1, MAX_QUIESCENCE_PLY) :
+                    staticScore;
+            if(this.isStopped) {
+                return 0;
+            }
+            if(value <= alpha) {
+                this.selectiveCounts[Integer.numberOfTrailingZeros(RAZORING)]++;
+                return value;
+            }
+        }
+        // null move pruning: if the maximizing player still gets up to beta after passing, a real move will too
+        if(isSelective(NULL_MOVE_PRUNING, treeLevel > NULL_MOVE_REDUCTION && staticScore != NO_SCORE &&
+                staticScore >= beta && !board.isNullMove() && hasPieces(board, board.getCurrentMover()))) {
+            board.makeNullMove();
+            final int value = minValue(board, treeLevel - 1 - NULL_MOVE_REDUCTION, beta - 1, beta);
+            board.unmakeNullMove();
+            if(this.isStopped) {
+                return 0;
+            }
+            if(value >= beta) {
+                this.selectiveCounts[Integer.numberOfTrailingZeros(NULL_MOVE_PRUNING)]++;
+                return beta;
+            }
+        }
+        final int[] moves = this.moveBuffer.getMoves(board.getPly());
+        final int moveCount = MoveGenerator.generateLegalMoves(board, board.getCurrentMover(), moves, 0);
+        // no legal move means the game is over (check mate or tie):
+        if(moveCount == 0) {
+            return this.boardScore.score(board, treeLevel);
+        }
+        final int[] scores = this.moveOrdering.scoreMoves(moves, moveCount, entry, board.getPly());
+        final int originalAlpha = alpha;
+        // a quiet move cannot bring the score of a frontier board up by more than the futility margin:
+        final int futilityValue = staticScore == NO_SCORE || treeLevel > FRONTIER_TREE_LEVEL ? INFINITE_SCORE :
+                staticScore + EvaluateBoardScore.futilityMargin(treeLevel);
+        int currentHighestValue = -INFINITE_SCORE;
+        int bestMove = PackedMove.NO_MOVE;
+        for(int i = 0; i < moveCount; i++) {
+            MoveOrdering.pickMove(moves, scores, i, moveCount);
+            board.make(moves[i]);
+            final boolean isQuiet = this.selectiveOptions != 0 && !isCheck && isQuietMove(board, moves[i]);
+            if(isSelective(FUTILITY_PRUNING, isQuiet && i > 0 && futilityValue <= alpha)) {
+                board.unmake(moves[i]);
+                this.selectiveCounts[Integer.numberOfTrailingZeros(FUTILITY_PRUNING)]++;
+                currentHighestValue = Math.max(currentHighestValue, futilityValue);
+                continue;
+            }
+            int currentValue = 0;
+            boolean isFailLow = false;
+            // late move reductions: a quiet move ordered this late is first searched one tree level less
+            if(isSelective(LATE_MOVE_REDUCTIONS, isQuiet && i >= LATE_MOVE_INDEX &&
+                    treeLevel >= LATE_MOVE_MIN_TREE_LEVEL)) {
+                this.selectiveCounts[Integer.numberOfTrailingZeros(LATE_MOVE_REDUCTIONS)]++;
+                currentValue = minValue(board, treeLevel - 2, alpha, alpha + 1);
+                isFailLow = currentValue <= alpha;
+            }
+            if(!isFailLow) {
+                currentValue = minChildValue(board, treeLevel - 1, alpha, beta, i == 0);
+            }
+            board.unmake(moves[i]);
+            if(this.isStopped) {
+                return 0;
+            }
+            if(currentValue > currentHighestValue) {
+                currentHighestValue = currentValue;
+                bestMove = moves[i];
+                // refutation: the minimizing player already has a better choice than this board
+                if(currentHighestValue >= beta) {
+                    this.moveOrdering.refutation(bestMove, board.getPly(), treeLevel);
+                    break;
+                }
+                alpha = Math.max(alpha, currentHighestValue);
+            }
+        }
+        storeEntry(boardKey, treeLevel, currentHighestValue, originalAlpha, beta, bestMove);
+        return currentHighestValue;
+    }
+
+    // minChildValue(board, treeLevel, alpha, beta, isFirstMove) returns the minValue() of a board reached by a move of the
+    //  maximizing player. In a principal variation search, only the first move gets the full window: the others are
+    //  first searched with the null window (alpha, alpha + 1), which only tells if they beat alpha, and searched again
+    //  with the full window if they do.
+    private int minChildValue(final SearchBoard board, final int treeLevel, final int alpha, final int beta,
+                              final boolean isFirstMove) {
+        if(!this.isPrincipalVariation || isFirstMove || beta - alpha <= 1) {
+            return minValue(board, treeLevel, alpha, beta);
+        }
+        final int value = minValue(board, treeLevel, alpha, alpha + 1);
+        if(value > alpha && value < beta && !this.isStopped) {
+            return minValue(board, treeLevel, alpha, beta);
+        }
+        return value;
+    }
+
+    // maxChildValue(board, treeLevel, alpha, beta, isFirstMove) returns the maxValue() of a board reached by a move of the
+    //  minimizing player, with the null window (beta - 1, beta) for the moves after the first one in a principal
+    //  variation search (see minChildValue()).
+    private int maxChildValue(final SearchBoard board, final int treeLevel, final int alpha, final int beta,
+                              final boolean isFirstMove) {
+        if(!this.isPrincipalVariation || isFirstMove || beta - alpha <= 1) {
+            return maxValue(board, treeLevel, alpha, beta);
+        }
+        final int value = maxValue(board, treeLevel, beta - 1, beta);
+        if(value < beta && value > alpha && !this.isStopped) {
+            return maxValue(board, treeLevel, alpha, beta);
+        }
+        return value;
+    }
+
+    // minQuiescence(board, alpha, beta, plyLeft) returns the value of the board for the minimizing player once all the
+    //  captures and promotions worth playing are played out. The minimizing player may also "stand pat": keep the score
+    //  of the board as it is instead of capturing, unless it is in check (then every escape move is searched). Past
+    //  MAX_QUIESCENCE_PLY moves, the board is scored as it is, even in check.
+    private int minQuiescence(final SearchBoard board, final int alpha, int beta, final int plyLeft) {
+        if(isTimeOver()) {
+            return 0;
+        }
+        final int standPat = this.boardScore.score(board, 0);
+        final boolean isCheck = board.isCheck();
+        if(plyLeft == 0 || (!isCheck && standPat <= alpha)) {
+            return standPat;
+        }
+        final int[] moves = this.moveBuffer.getMoves(board.getPly());
+        final int moveCount = MoveGenerator.generateLegalMoves(board, board.getCurrentMover(), moves, 0);
+        // no legal move means the game is over (check mate or tie), and the board score already says so:
+        if(moveCount == 0) {
+            return standPat;
+        }
+        int currentLowestValue = isCheck ? INFINITE_SCORE : standPat;
+        if(!isCheck) {
+            beta = Math.min(beta, standPat);
+        }
+        final int[] scores = this.moveOrdering.scoreMoves(moves, moveCount, TranspositionTable.NO_ENTRY,
+                board.getPly());
+        for(int i = 0; i < moveCount; i++) {
+            final int move = MoveOrdering.pickMove(moves, scores, i, moveCount);
+            if(!isCheck && (!isTactical(move) || standPat - materialGain(move) - DELTA_MARGIN >= beta)) {
+                continue;
+            }
+            board.make(move);
+            final int currentValue = maxQuiescence(board, alpha, beta, plyLeft - 1);
+            board.unmake(move);
+            if(this.isStopped) {
+                return 0;
+            }
+            if(currentValue < currentLowestValue) {
+                currentLowestValue = currentValue;
+                if(currentLowestValue <= alpha) {
+                    break;
+                }
+                beta = Math.min(beta, currentLowestValue);
+            }
+        }
+        return currentLowestValue;
+    }
+
+    // maxQuiescence(board, alpha, beta, plyLeft) returns the value of the board for the maximizing player once all the
+    //  captures and promotions worth playing are played out (see minQuiescence()).
+    private int maxQuiescence(final SearchBoard board, int alpha, final int beta, final int plyLeft) {
+        if(isTimeOver()) {
+            return 0;
+        }
+        final int standPat = this.boardScore.score(board, 0);
+        final boolean isCheck = board.isCheck();
+        if(plyLeft == 0 || (!isCheck && standPat >= beta)) {
+            return standPat;
+        }
+        final int[] moves = this.moveBuffer.getMoves(board.getPly());
+        final int moveCount = MoveGenerator.generateLegalMoves(board, board.getCurrentMover(), moves, 0);
+        // no legal move means the game is over (check mate or tie), and the board score already says so:
+        if(moveCount == 0) {
+            return standPat;
+        }
+        int currentHighestValue = isCheck ? -INFINITE_SCORE : standPat;
+        if(!isCheck) {
+            alpha = Math.max(alpha, standPat);
+        }
+        final int[] scores = this.moveOrdering.scoreMoves(moves, moveCount, TranspositionTable.NO_ENTRY,
+                board.getPly());
+        for(int i = 0; i < moveCount; i++) {
+            final int move = MoveOrdering.pickMove(moves, scores, i, moveCount);
+            if(!isCheck && (!isTactical(move) || standPat + materialGain(move) + DELTA_MARGIN <= alpha)) {
+                continue;
+            }
+            board.make(move);
+            final int currentValue = minQuiescence(board, alpha, beta, plyLeft - 1);
+            board.unmake(move);
+            if(this.isStopped) {
+                return 0;
+            }
+            if(currentValue > currentHighestValue) {
+                currentHighestValue = currentValue;
+                if(currentHighestValue >= beta) {
+                    break;
+                }
+                alpha = Math.max(alpha, currentHighestValue);
+            }
+        }
+        return currentHighestValue;
+    }
+
+    // isSelective(option, isApplicable) checks if the given selective search option is turned on and applies to the
+    //  current board.
+    private boolean isSelective(final int option, final boolean isApplicable) {
+        return (this.selectiveOptions & option) != 0 && isApplicable;
+    }
+
+    // staticScore(board, treeLevel, isCheck) returns the score of the board as it is, when a selective search option
+    //  needs it at the given tree level, or NO_SCORE. A board in check is never pruned.
+    private int staticScore(final SearchBoard board, final int treeLevel, final boolean isCheck) {
+        final boolean isFrontier = treeLevel <= FRONTIER_TREE_LEVEL &&
+                (this.selectiveOptions & (FUTILITY_PRUNING | RAZORING)) != 0;
+        final boolean isNullMovable = treeLevel > NULL_MOVE_REDUCTION &&
+                (this.selectiveOptions & NULL_MOVE_PRUNING) != 0;
+        if(isCheck || !(isFrontier || isNullMovable)) {
+            return NO_SCORE;
+        }
+        return this.boardScore.score(board, 0);
+    }
+
+    // isQuietMove(board, move) checks if the given packed move, just made on the board, is neither a capture, nor a
+    //  promotion, nor a check: the kind of move the selective search options may skip or reduce.
+    private static boolean isQuietMove(final SearchBoard board, final int move) {
+        return !isTactical(move) && !board.isCheck();
+    }
+
+    // hasPieces(board, team) checks if the given team has any piece left besides its Pawns and its King. Without one,
+    //  passing can be the best move (zugzwang), so null move pruning does not apply.
+    private static boolean hasPieces(final SearchBoard board, final Team team) {
+        final BitBoard bitBoard = board.getBitBoard();
+        return (bitBoard.getPieces(team, ChessPiece.pieceType.KNIGHT) |
+                bitBoard.getPieces(team, ChessPiece.pieceType.BISHOP) |
+                bitBoard.getPieces(team, ChessPiece.pieceType.ROOK) |
+                bitBoard.getPieces(team, ChessPiece.pieceType.QUEEN)) != BitBoard.EMPTY;
+    }
+
+    // isTactical(move) checks if the given packed move is searched by the quiescence search: a capture (killer move,
+    //  pawn killer move, en passant) or a pawn promotion.
+    private static boolean isTactical(final int move) {
+        return PackedMove.isKillerMove(move) || PackedMove.isPromotion(move);
+    }
+
+    // materialGain(move) returns the points won by the given capture or promotion: the captured piece, plus the
+    //  promoted piece minus the Pawn for a promotion.
+    private static int materialGain(final int move) {
+        int gain = 0;
+        if(PackedMove.getCapturedPiece(move) != PackedMove.NO_PIECE) {
+            gain += PIECE_TYPES[PackedMove.getCapturedPiece(move) % BitBoard.PIECE_TYPES].getPiecePoints();
+        }
+        if(PackedMove.isPromotion(move)) {
+            gain += PIECE_TYPES[PackedMove.getPromotedPiece(move) % BitBoard.PIECE_TYPES].getPiecePoints() -
+                    ChessPiece.pieceType.PAWN.getPiecePoints();
+        }
+        return gain;
+    }
+
+    // isTimeOver() checks, every NODES_PER_TIME_CHECK boards, if the stop time of the search is reached (or the search
+    //  was aborted), and stops the search if so. Once the search is stopped, every value returned is meaningless.
+    private boolean isTimeOver() {
+        if(!this.isStopped && ++this.nodeCount % NODES_PER_TIME_CHECK == 0 &&
+                (this.isAborted || System.currentTimeMillis() >= this.stopTime)) {
+            this.isStopped = true;
+        }
+        return this.isStopped;
+    }
+
+    // isEnoughEntry(entry, treeLevel, alpha, beta) checks if the given transposition table entry gives the value of a
+    //  board searched within the given window. Board scores depend on the tree level they are found on, so only an entry
+    //  searched with the same number of tree levels below the board can be used.
+    private static boolean isEnoughEntry(final long entry, final int treeLevel, final int alpha, final int beta) {
+        if(entry == TranspositionTable.NO_ENTRY || TranspositionTable.getDepth(entry) != treeLevel) {
+            return false;
+        }
+        final int score = TranspositionTable.getScore(entry);
+        final int bound = TranspositionTable.getBound(entry);
+        return bound == TranspositionTable.EXACT || (bound == TranspositionTable.LOWER_BOUND && score >= beta) ||
+                (bound == TranspositionTable.UPPER_BOUND && score <= alpha);
+    }
+
+    // storeEntry(boardKey, treeLevel, value, alpha, beta, bestMove) saves the value found for a board searched within
+    //  the given window: a value outside of the window is only a bound of the board's value.
+    private void storeEntry(final long boardKey, final int treeLevel, final int value, final int alpha, final int beta,
+                            final int bestMove) {
+        final int bound;
+        if(value <= alpha) {
+            bound = TranspositionTable.UPPER_BOUND;
+        }
+        else if(value >= beta) {
+            bound = TranspositionTable.LOWER_BOUND;
+        }
+        else {
+            bound = TranspositionTable.EXACT;
+        }
+        this.transpositionTable.store(boardKey, treeLevel, value, bound, bestMove);
+    }
+}
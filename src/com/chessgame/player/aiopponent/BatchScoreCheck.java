@@ -0,0 +1,69 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.SearchBoard;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// BatchScoreCheck checks that EvaluateBoardScore scores a batch of packed boards (see score(long[], int)) exactly as it
+//  scores each of them as a SearchBoard (see score(SearchBoard, int)). The boards are those of random games played
+//  from the initial board, check mates included, packed one after the other.
+// Run it with the number of games to play (GAME_COUNT by default): it prints the number of boards checked, and stops
+//  with an exception at the first board scored differently.
+public final class BatchScoreCheck {
+    private static final int GAME_COUNT = 400;
+    private static final int GAME_PLY = 120; // most moves played per game
+    private static final long SEED = 11;
+    private static final int[] TREE_LEVELS = {0, 3}; // a check mate score depends on the tree level
+
+    private BatchScoreCheck() {
+        throw new RuntimeException("ERROR: Not instantiable");
+    }
+
+    public static void main(final String[] args) {
+        final int gameCount = args.length == 0 ? GAME_COUNT : Integer.parseInt(args[0]);
+        if(gameCount <= 0) {
+            throw new IllegalArgumentException("INVALID GAME COUNT: " + gameCount + "!");
+        }
+        final SearchBoard[] boards = playRandomGames(gameCount);
+        final long[] packedBoards = new long[boards.length * SearchBoard.PACKED_LONGS];
+        for(int board = 0; board < boards.length; board++) {
+            boards[board].pack(packedBoards, board * SearchBoard.PACKED_LONGS);
+        }
+        final EvaluateBoardScore boardScore = new EvaluateBoardScore();
+        for(final int treeLevel : TREE_LEVELS) {
+            final int[] batchScores = boardScore.score(packedBoards, treeLevel);
+            for(int board = 0; board < boards.length; board++) {
+                final int score = boardScore.score(boards[board], treeLevel);
+                if(batchScores[board] != score) {
+                    throw new IllegalStateException("BATCH SCORE MISMATCH ON BOARD " + board + " (TREE LEVEL " +
+                            treeLevel + "): " + batchScores[board] + " INSTEAD OF " + score + "!");
+                }
+            }
+        }
+        System.out.println(boards.length + " boards of " + gameCount + " games: batch and board scores are equal.");
+    }
+
+    // playRandomGames(gameCount) plays the given number of random games from the initial board, and returns a copy of
+    //  every board reached, up to GAME_PLY moves per game.
+    private static SearchBoard[] playRandomGames(final int gameCount) {
+        final SplittableRandom random = new SplittableRandom(SEED);
+        final int[] legalMoves = new int[MoveGenerator.MAX_MOVES];
+        final SearchBoard[] boards = new SearchBoard[gameCount * (GAME_PLY + 1)];
+        int boardCount = 0;
+        for(int game = 0; game < gameCount; game++) {
+            final SearchBoard board = new SearchBoard(ChessBoard.gameInitialize());
+            for(int ply = 0; ply <= GAME_PLY; ply++) {
+                boards[boardCount++] = new SearchBoard(board);
+                final int moveCount = MoveGenerator.generateLegalMoves(board, board.getCurrentMover(), legalMoves, 0);
+                if(moveCount == 0 || ply == GAME_PLY) {
+                    break;
+                }
+                board.make(legalMoves[random.nextInt(moveCount)]);
+            }
+        }
+        return Arrays.copyOf(boards, boardCount);
+    }
+}
@@ -1,6 +1,7 @@
 package com.chessgame.player.aiopponent;
 
 import com.chessgame.board.ChessBoard;
+import com.chessgame.board.SearchBoard;
 
 public interface BoardScore {
     // NOTE:
@@ -8,4 +9,7 @@ public interface BoardScore {
     // A negative score means that the AI opponent (BLACK TEAM) is currently winning.
     // A neutral score means that the game is currently equal.
     int score(ChessBoard board, int treeLevel);
+
+    // Same score, computed on the AI search's mutable board (the board must be left unchanged):
+    int score(SearchBoard board, int treeLevel);
 }
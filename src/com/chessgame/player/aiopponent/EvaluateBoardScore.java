@@ -1,13 +1,32 @@
 package com.chessgame.player.aiopponent;
 
+import com.chessgame.board.AttackTables;
+import com.chessgame.board.BitBoard;
 import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.PieceSquareTables;
+import com.chessgame.board.SearchBoard;
 import com.chessgame.pieces.ChessPiece;
 import com.chessgame.player.Player;
+import com.chessgame.player.Team;
 
 public class EvaluateBoardScore implements BoardScore {
     private static final int CHECK_SCORE = 50; // A check status on the opponent is worth half a pawn.
     private static final int CHECK_MATE_SCORE = 10000; // Same value as the King (killing the king)
     private static final int CASTLED_SCORE = 60;
+    // Points per tile a piece can move to (see mobility()). A Knight or a Bishop gains more from a free tile than a
+    //  Rook or a Queen, which always have plenty:
+    private static final int KNIGHT_MOBILITY = 2;
+    private static final int BISHOP_MOBILITY = 2;
+    private static final int ROOK_MOBILITY = 1;
+    private static final int QUEEN_MOBILITY = 1;
+    private static final int PAWN_HASH_ENTRIES = 1 << 13;
+    // Largest score change expected from a quiet move (no capture, no promotion): a check, a castling move, the move
+    //  options it opens or closes for both teams, and the tile bonus it gains.
+    private static final int QUIET_MOVE_MARGIN = CHECK_SCORE + CASTLED_SCORE + 100 + 50;
+
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES]; // scratch space for the SearchBoard moves
+    private final PawnHashTable pawnHashTable = new PawnHashTable(PAWN_HASH_ENTRIES);
 
     @Override
     public int score(final ChessBoard board, final int treeLevel) {
@@ -16,14 +35,95 @@ public class EvaluateBoardScore implements BoardScore {
         //  but if the score is negative, then BLACK player is currently winning (black player's score > white player's score)
         //  as defined in BoardScore interface. And if (white player's score == black player's score), then the difference
         //  is null so the score is neutral, which means that the game is currently equal.
-        return playerScore(board.getWhitePlayer(), treeLevel) -
-                playerScore(board.getBlackPlayer(), treeLevel);
+        return playerScore(board, board.getWhitePlayer(), treeLevel) -
+                playerScore(board, board.getBlackPlayer(), treeLevel) +
+                PieceSquareTables.pieceSquareScore(board.getBitBoard()) + pawnStructureScore(board.getBitBoard()) +
+                PawnStructure.shieldScore(board.getBitBoard(), PieceSquareTables.gamePhase(board.getBitBoard()));
+    }
+
+    @Override
+    public int score(final SearchBoard board, final int treeLevel) {
+        // same principle as above, with the same terms computed on the SearchBoard (the material points and tile
+        //  bonuses are kept up to date by the SearchBoard itself):
+        return playerScore(board, Team.WHITE, treeLevel) - playerScore(board, Team.BLACK, treeLevel) +
+                board.getPieceSquareScore() + pawnStructureScore(board) +
+                PawnStructure.shieldScore(board.getBitBoard(), board.getGamePhase());
+    }
+
+    // score(packedBoards, treeLevel) returns the score on the given tree level of each board of a batch, packed one
+    //  after the other (see SearchBoard.pack()): the same scores as score(SearchBoard, treeLevel) of each board.
+    // The piece masks of the batch are first laid out as a structure of arrays (one array per board index, indexed by
+    //  board), over which the material points, game phases and tile bonuses of all the boards are summed one board
+    //  index at a time (see addPiecesScores()). The mobility, pawn and check terms look up attack tables and the pawn
+    //  structure of one board at a time, so they are added board by board, from its packed masks (see boardScore()):
+    //  only the boards whose moving team is in check are unpacked into a SearchBoard, to test for a check mate.
+    // No search feeds it batches yet: it is an API for callers that score many boards at once.
+    public int[] score(final long[] packedBoards, final int treeLevel) {
+        if(packedBoards.length % SearchBoard.PACKED_LONGS != 0) {
+            throw new IllegalArgumentException("INVALID PACKED BOARDS LENGTH: " + packedBoards.length + "!");
+        }
+        final int boardCount = packedBoards.length / SearchBoard.PACKED_LONGS;
+        final long[][] pieces = new long[2 * BitBoard.PIECE_TYPES][boardCount];
+        for(int board = 0; board < boardCount; board++) {
+            for(int index = 0; index < pieces.length; index++) {
+                pieces[index][board] = packedBoards[board * SearchBoard.PACKED_LONGS + index];
+            }
+        }
+        final int[] scores = new int[boardCount];
+        final int[] gamePhases = addPiecesScores(pieces, scores);
+        for(int board = 0; board < boardCount; board++) {
+            scores[board] += boardScore(packedBoards, board * SearchBoard.PACKED_LONGS, gamePhases[board],
+                    treeLevel);
+        }
+        return scores;
+    }
+
+    // futilityMargin(treeLevel) returns how much the score of a board is expected to change at most over the given
+    //  number of tree levels of quiet moves. A board whose score is this far below what the moving team needs is not
+    //  worth searching quiet moves on (futility pruning).
+    public static int futilityMargin(final int treeLevel) {
+        return QUIET_MOVE_MARGIN * treeLevel;
+    }
+
+    // razoringMargin(treeLevel) returns how far below what the moving team needs the score of a board must be, with the
+    //  given number of tree levels left, for only its captures and promotions to be searched (razoring): a minor piece
+    //  more than the futility margin.
+    public static int razoringMargin(final int treeLevel) {
+        return ChessPiece.pieceType.KNIGHT.getPiecePoints() + futilityMargin(treeLevel);
+    }
+
+    // checkMateScore(treeLevel) returns the score of a check mate found on the given tree level.
+    static int checkMateScore(final int treeLevel) {
+        return CHECK_MATE_SCORE * treeLevelMultiplicator(treeLevel);
+    }
+
+    // getPawnHashHitRate() returns the share of the boards scored so far that found the score of their Pawns in the
+    //  pawn hash table (see PawnHashTable).
+    public double getPawnHashHitRate() {
+        return this.pawnHashTable.getHitRate();
+    }
+
+    // pawnStructureScore(bitBoard) returns the pawn structure score of the given piece masks (see PawnStructure).
+    private static int pawnStructureScore(final BitBoard bitBoard) {
+        return PawnStructure.score(bitBoard.getPieces(Team.WHITE, ChessPiece.pieceType.PAWN),
+                bitBoard.getPieces(Team.BLACK, ChessPiece.pieceType.PAWN));
+    }
+
+    // pawnStructureScore(board) returns the pawn structure score of the search board, from the pawn hash table if its
+    //  Pawns are already in it.
+    private int pawnStructureScore(final SearchBoard board) {
+        int score = this.pawnHashTable.probe(board.getPawnKey());
+        if(score == PawnHashTable.NO_SCORE) {
+            score = pawnStructureScore(board.getBitBoard());
+            this.pawnHashTable.store(board.getPawnKey(), score);
+        }
+        return score;
     }
 
     // playerScore(board, player, treeLevel) returns the current player's score on the given tree level with the chess
     //  board.
-    private int playerScore(final Player player, final int treeLevel) {
-        return piecesPoints(player) + playerMoveOptions(player) + opponentCheckStatus(player) +
+    private int playerScore(final ChessBoard board, final Player player, final int treeLevel) {
+        return piecesPoints(player) + playerMoveOptions(board, player) + opponentCheckStatus(player) +
                 opponentCheckMateStatus(player, treeLevel) + hasCastledScore(player);
     }
 
@@ -36,9 +136,10 @@ public class EvaluateBoardScore implements BoardScore {
         return currentSum;
     }
 
-    // playerMoveOptions(player) returns the number of legal move options for the given player.
-    private static int playerMoveOptions(final Player player) {
-        return player.getLegalMoves().size();
+    // playerMoveOptions(board, player) returns the weighted number of move options for the given player (see
+    //  mobility()).
+    private static int playerMoveOptions(final ChessBoard board, final Player player) {
+        return mobility(board.getBitBoard(), player.getTeam());
     }
 
     // opponentCheckStatus(player) checks if the opponent of the given player is in check and if so, return a check score.
@@ -74,4 +175,165 @@ public class EvaluateBoardScore implements BoardScore {
         }
         return 0;
     }
+
+    // playerScore(board, team, treeLevel) returns the given team's score on the given tree level with the search board.
+    private int playerScore(final SearchBoard board, final Team team, final int treeLevel) {
+        return piecesPoints(board, team) + playerMoveOptions(board, team) + opponentCheckStatus(board, team) +
+                opponentCheckMateStatus(board, team, treeLevel) + hasCastledScore(board, team);
+    }
+
+    // piecesPoints(board, team) returns a sum of points of all the given team's current pieces on the search board.
+    private static int piecesPoints(final SearchBoard board, final Team team) {
+        return board.getPiecesPoints(team);
+    }
+
+    // playerMoveOptions(board, team) returns the weighted number of move options for the given team on the search board
+    //  (see mobility()).
+    private static int playerMoveOptions(final SearchBoard board, final Team team) {
+        return mobility(board.getBitBoard(), team);
+    }
+
+    // mobility(bitBoard, team) counts the tiles attacked by each of the given team's pieces that are not occupied by
+    //  the team itself, weighted by its piece type (see KNIGHT_MOBILITY...): a cheap estimate of its move options,
+    //  without generating any move. Pawns and the King are left out, since their moves say little about the board.
+    private static int mobility(final BitBoard bitBoard, final Team team) {
+        return mobility(bitBoard.getPieces(team, ChessPiece.pieceType.KNIGHT),
+                bitBoard.getPieces(team, ChessPiece.pieceType.BISHOP),
+                bitBoard.getPieces(team, ChessPiece.pieceType.ROOK),
+                bitBoard.getPieces(team, ChessPiece.pieceType.QUEEN), bitBoard.getTeamOccupancy(team),
+                bitBoard.getOccupancy());
+    }
+
+    // mobility(knights, bishops, rooks, queens, teamOccupancy, occupancy) returns the same weighted count from the
+    //  masks of a team's pieces, of all the tiles of the team and of all the occupied tiles.
+    private static int mobility(final long knights, final long bishops, final long rooks, final long queens,
+                                final long teamOccupancy, final long occupancy) {
+        final long targets = ~teamOccupancy;
+        int mobility = 0;
+        for(long mask = knights; mask != BitBoard.EMPTY; mask &= mask - 1) {
+            mobility += KNIGHT_MOBILITY *
+                    BitBoard.tileCount(AttackTables.knightAttacks(BitBoard.firstTile(mask)) & targets);
+        }
+        for(long mask = bishops; mask != BitBoard.EMPTY; mask &= mask - 1) {
+            mobility += BISHOP_MOBILITY *
+                    BitBoard.tileCount(AttackTables.bishopAttacks(BitBoard.firstTile(mask), occupancy) & targets);
+        }
+        for(long mask = rooks; mask != BitBoard.EMPTY; mask &= mask - 1) {
+            mobility += ROOK_MOBILITY *
+                    BitBoard.tileCount(AttackTables.rookAttacks(BitBoard.firstTile(mask), occupancy) & targets);
+        }
+        for(long mask = queens; mask != BitBoard.EMPTY; mask &= mask - 1) {
+            mobility += QUEEN_MOBILITY *
+                    BitBoard.tileCount(AttackTables.queenAttacks(BitBoard.firstTile(mask), occupancy) & targets);
+        }
+        return mobility;
+    }
+
+    // opponentCheckStatus(board, team) checks if the opponent of the given team is in check and if so, return a check
+    //  score.
+    private static int opponentCheckStatus(final SearchBoard board, final Team team) {
+        if(board.isKingAttacked(team.getEnemyTeam())) {
+            return CHECK_SCORE;
+        }
+        return 0;
+    }
+
+    // opponentCheckMateStatus(board, team, treeLevel) checks if the opponent of the given team is in check mate on the
+    //  search board, and if so, return a check mate score. Only the team moving next can be in check mate.
+    private int opponentCheckMateStatus(final SearchBoard board, final Team team, final int treeLevel) {
+        if(board.getCurrentMover() != team && board.isCheck() &&
+                !MoveGenerator.hasLegalMove(board, board.getCurrentMover(), this.moveBuffer, 0)) {
+            return CHECK_MATE_SCORE * treeLevelMultiplicator(treeLevel);
+        }
+        return 0;
+    }
+
+    // hasCastledScore(board, team) checks if the given team played its castling move and if so, return a castled score.
+    private static int hasCastledScore(final SearchBoard board, final Team team) {
+        if(board.hasCastled(team)) {
+            return CASTLED_SCORE;
+        }
+        return 0;
+    }
+
+    // addPiecesScores(pieces, scores) adds the material points and tapered tile bonuses of each board of a batch laid
+    //  out as a structure of arrays (see score(long[], int)) to its score, and returns the game phase of each board.
+    private static int[] addPiecesScores(final long[][] pieces, final int[] scores) {
+        final int boardCount = scores.length;
+        final int[] middlegameScores = new int[boardCount];
+        final int[] endgameScores = new int[boardCount];
+        final int[] gamePhases = new int[boardCount];
+        for(int index = 0; index < pieces.length; index++) {
+            final int points = index < BitBoard.PIECE_TYPES ? PieceSquareTables.piecePoints(index) :
+                    -PieceSquareTables.piecePoints(index);
+            final int gamePhase = PieceSquareTables.gamePhase(index);
+            final long[] masks = pieces[index];
+            for(int board = 0; board < boardCount; board++) {
+                final int tileCount = BitBoard.tileCount(masks[board]);
+                scores[board] += points * tileCount;
+                gamePhases[board] += gamePhase * tileCount;
+            }
+            for(int board = 0; board < boardCount; board++) {
+                for(long mask = masks[board]; mask != BitBoard.EMPTY; mask &= mask - 1) {
+                    final int coordinate = BitBoard.firstTile(mask);
+                    middlegameScores[board] += PieceSquareTables.middlegameScore(index, coordinate);
+                    endgameScores[board] += PieceSquareTables.endgameScore(index, coordinate);
+                }
+            }
+        }
+        for(int board = 0; board < boardCount; board++) {
+            scores[board] += PieceSquareTables.taperedScore(middlegameScores[board], endgameScores[board],
+                    gamePhases[board]);
+        }
+        return gamePhases;
+    }
+
+    // boardScore(packedBoards, offset, gamePhase, treeLevel) returns the mobility, pawn structure, check, castled and
+    //  check mate terms on the given tree level of the board packed at the given offset, of the given game phase:
+    //  the rest of score(SearchBoard, treeLevel) once addPiecesScores() is done.
+    private int boardScore(final long[] packedBoards, final int offset, final int gamePhase, final int treeLevel) {
+        long whiteOccupancy = BitBoard.EMPTY;
+        long blackOccupancy = BitBoard.EMPTY;
+        for(int index = 0; index < BitBoard.PIECE_TYPES; index++) {
+            whiteOccupancy |= packedBoards[offset + index];
+            blackOccupancy |= packedBoards[offset + BitBoard.PIECE_TYPES + index];
+        }
+        final long occupancy = whiteOccupancy | blackOccupancy;
+        int score = mobility(packedBoards, offset, Team.WHITE, whiteOccupancy, occupancy) -
+                mobility(packedBoards, offset, Team.BLACK, blackOccupancy, occupancy);
+        final long whitePawns = packedBoards[offset + BitBoard.boardIndex(Team.WHITE, ChessPiece.pieceType.PAWN)];
+        final long blackPawns = packedBoards[offset + BitBoard.boardIndex(Team.BLACK, ChessPiece.pieceType.PAWN)];
+        final int whiteKingTile =
+                BitBoard.firstTile(packedBoards[offset + BitBoard.boardIndex(Team.WHITE, ChessPiece.pieceType.KING)]);
+        final int blackKingTile =
+                BitBoard.firstTile(packedBoards[offset + BitBoard.boardIndex(Team.BLACK, ChessPiece.pieceType.KING)]);
+        score += PawnStructure.score(whitePawns, blackPawns) +
+                PawnStructure.shieldScore(whitePawns, blackPawns, whiteKingTile, blackKingTile, gamePhase);
+        final boolean isWhiteCheck =
+                BitBoard.isTileAttacked(packedBoards, offset, whiteKingTile, Team.BLACK, occupancy);
+        final boolean isBlackCheck =
+                BitBoard.isTileAttacked(packedBoards, offset, blackKingTile, Team.WHITE, occupancy);
+        score += (isBlackCheck ? CHECK_SCORE : 0) - (isWhiteCheck ? CHECK_SCORE : 0) +
+                (SearchBoard.hasCastled(packedBoards, offset, Team.WHITE) ? CASTLED_SCORE : 0) -
+                (SearchBoard.hasCastled(packedBoards, offset, Team.BLACK) ? CASTLED_SCORE : 0);
+        // only the team moving next can be in check mate:
+        final boolean isBlackMover = SearchBoard.isBlackMover(packedBoards, offset);
+        if(isBlackMover ? isBlackCheck : isWhiteCheck) {
+            final SearchBoard searchBoard = new SearchBoard(packedBoards, offset);
+            if(!MoveGenerator.hasLegalMove(searchBoard, searchBoard.getCurrentMover(), this.moveBuffer, 0)) {
+                score += isBlackMover ? checkMateScore(treeLevel) : -checkMateScore(treeLevel);
+            }
+        }
+        return score;
+    }
+
+    // mobility(packedBoards, offset, team, teamOccupancy, occupancy) returns the weighted move options (see mobility())
+    //  of the given team on the board packed at the given offset.
+    private static int mobility(final long[] packedBoards, final int offset, final Team team, final long teamOccupancy,
+                                final long occupancy) {
+        return mobility(packedBoards[offset + BitBoard.boardIndex(team, ChessPiece.pieceType.KNIGHT)],
+                packedBoards[offset + BitBoard.boardIndex(team, ChessPiece.pieceType.BISHOP)],
+                packedBoards[offset + BitBoard.boardIndex(team, ChessPiece.pieceType.ROOK)],
+                packedBoards[offset + BitBoard.boardIndex(team, ChessPiece.pieceType.QUEEN)], teamOccupancy, occupancy);
+    }
 }
@@ -0,0 +1,194 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.SearchBoard;
+import com.chessgame.movement.Move;
+import com.chessgame.movement.PackedMove;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+// IterativeDeepening searches the board with AlphaBeta (quiescence search on) at tree level 1, then 2, then 3... until
+//  its time budget is spent, and returns the best move of the deepest search that was completed. The time taken per
+//  move is predictable whatever the board, instead of the tree level.
+// Each search reuses the previous ones: the best root move found so far is searched first, and the transposition
+//  table shared by all the searches gives the best move of every board already searched (see AlphaBeta).
+// With a parallelism above 1, the root moves of each tree level are split across a ForkJoinPool like in Minimax: the
+//  best move so far is searched first, alone, then every other root move is searched by its own task within the bound
+//  it set, with an AlphaBeta of its own sharing the transposition table.
+public class IterativeDeepening implements Algorithms, AutoCloseable {
+    static final int MAX_TREE_LEVEL = 64; // deepest search, well below SearchBoard.MAX_PLY
+
+    private final long timeBudget; // milliseconds per move
+    private final AlphaBeta alphaBeta; // keeps its transposition table and move ordering from one search to the next
+    private final ForkJoinPool pool; // threads searching the root moves in parallel, or null for a serial search
+    private final TranspositionTable transpositionTable;
+    private final Queue<AlphaBeta> taskAlphaBetas; // AlphaBetas of the root move tasks, while not used by one
+    private volatile boolean isStopped; // true once a root move task stopped before its search was done
+    private int completedTreeLevel; // tree level of the last search completed
+
+    // IterativeDeepening(timeBudget) searches serially for the given time budget per move.
+    public IterativeDeepening(final Duration timeBudget) {
+        this(timeBudget, Minimax.TRANSPOSITION_TABLE_MB);
+    }
+
+    public IterativeDeepening(final Duration timeBudget, final int transpositionTableMB) {
+        this(timeBudget, transpositionTableMB, 1);
+    }
+
+    // parallelism is the number of threads the root moves are split across (1 for a serial search, the default). A
+    //  parallel IterativeDeepening owns its threads until close().
+    public IterativeDeepening(final Duration timeBudget, final int transpositionTableMB, final int parallelism) {
+        if(parallelism <= 0) {
+            throw new IllegalArgumentException("INVALID PARALLELISM: " + parallelism + "!");
+        }
+        this.timeBudget = timeBudget.toMillis();
+        this.transpositionTable = new TranspositionTable(transpositionTableMB);
+        this.alphaBeta = new AlphaBeta(MAX_TREE_LEVEL, true, false, 0, this.transpositionTable);
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
+        this.taskAlphaBetas = new ConcurrentLinkedQueue<>();
+    }
+
+    @Override
+    public Move runAlgorithm(final ChessBoard board) {
+        final long stopTime = System.currentTimeMillis() + this.timeBudget;
+        final SearchBoard searchBoard = new SearchBoard(board);
+        this.alphaBeta.newSearch();
+        for(final AlphaBeta taskAlphaBeta : this.taskAlphaBetas) {
+            taskAlphaBeta.newThreadSearch();
+        }
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int moveCount = MoveGenerator.generateLegalMoves(searchBoard, searchBoard.getCurrentMover(), moves, 0);
+        if(moveCount == 0) {
+            return null;
+        }
+        // search order of the root moves (indexes of moves):
+        final int[] order = new int[moveCount];
+        for(int i = 0; i < moveCount; i++) {
+            order[i] = i;
+        }
+        int bestIndex = 0;
+        this.completedTreeLevel = 0;
+        // the first search always runs to the end, so that there is always a searched move to return:
+        for(int treeLevel = 1; treeLevel <= MAX_TREE_LEVEL && System.currentTimeMillis() < stopTime; treeLevel++) {
+            final long levelStopTime = treeLevel == 1 ? Long.MAX_VALUE : stopTime;
+            final int index = this.pool != null && moveCount > 1 ?
+                    searchRootParallel(searchBoard, treeLevel, moves, order, moveCount, levelStopTime) :
+                    this.alphaBeta.searchRoot(searchBoard, treeLevel, moves, order, moveCount, levelStopTime);
+            if(index == AlphaBeta.NO_MOVE_INDEX) {
+                break;
+            }
+            bestIndex = index;
+            this.completedTreeLevel = treeLevel;
+            searchFirst(order, bestIndex);
+            // with a single legal move, there is nothing to choose:
+            if(moveCount == 1) {
+                break;
+            }
+        }
+        return PackedMove.toMove(board, moves[bestIndex]);
+    }
+
+    // getCompletedTreeLevel() returns the tree level of the deepest search completed by the last runAlgorithm().
+    public int getCompletedTreeLevel() {
+        return this.completedTreeLevel;
+    }
+
+    // close() stops the threads of a parallel IterativeDeepening once their current search is done. The
+    //  IterativeDeepening must not be used afterwards.
+    @Override
+    public void close() {
+        if(this.pool != null) {
+            this.pool.shutdown();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IterativeDeepening";
+    }
+
+    // searchRootParallel(board, treeLevel, moves, order, moveCount, stopTime) returns the same best move index as
+    //  AlphaBeta.searchRoot(), or NO_MOVE_INDEX if a search was stopped. The first move in order is searched by the
+    //  calling thread with the full window, then every other move by its own task (see Minimax.searchRootMove()).
+    private int searchRootParallel(final SearchBoard board, final int treeLevel, final int[] moves, final int[] order,
+                                   final int moveCount, final long stopTime) {
+        final boolean isWhite = board.getCurrentMover().isWhite();
+        final AtomicLong bestRootKey = new AtomicLong(Minimax.NO_ROOT_KEY);
+        this.alphaBeta.setStopTime(stopTime);
+        Minimax.searchRootMove(this.alphaBeta, board, moves[order[0]], order[0], treeLevel, isWhite, bestRootKey);
+        if(this.alphaBeta.isStopped()) {
+            return AlphaBeta.NO_MOVE_INDEX;
+        }
+        this.isStopped = false;
+        final RootMoveSearch[] tasks = new RootMoveSearch[moveCount - 1];
+        for(int i = 1; i < moveCount; i++) {
+            // each task makes its move on its own copy of the board:
+            tasks[i - 1] = new RootMoveSearch(new SearchBoard(board), moves[order[i]], order[i], treeLevel, isWhite,
+                    stopTime, bestRootKey);
+            this.pool.execute(tasks[i - 1]);
+        }
+        for(final RootMoveSearch task : tasks) {
+            task.join();
+        }
+        return this.isStopped ? AlphaBeta.NO_MOVE_INDEX : (int) bestRootKey.get();
+    }
+
+    // RootMoveSearch is the fork/join task searching a single root move, with one of the AlphaBetas of the tasks.
+    private final class RootMoveSearch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final SearchBoard board;
+        private final int move;
+        private final int index; // index of the move in the root moves
+        private final int treeLevel;
+        private final boolean isWhite; // true if White moves on the root board
+        private final long stopTime;
+        private final AtomicLong bestRootKey; // Minimax.rootKey() of the best root move so far
+
+        private RootMoveSearch(final SearchBoard board, final int move, final int index, final int treeLevel,
+                               final boolean isWhite, final long stopTime, final AtomicLong bestRootKey) {
+            this.board = board;
+            this.move = move;
+            this.index = index;
+            this.treeLevel = treeLevel;
+            this.isWhite = isWhite;
+            this.stopTime = stopTime;
+            this.bestRootKey = bestRootKey;
+        }
+
+        @Override
+        protected void compute() {
+            if(isStopped) {
+                return;
+            }
+            // the thread joining the tasks may run some of them too, so an AlphaBeta is added when none is left (there
+            //  are never more than the threads running the tasks at once):
+            final AlphaBeta polledAlphaBeta = taskAlphaBetas.poll();
+            final AlphaBeta taskAlphaBeta = polledAlphaBeta != null ? polledAlphaBeta :
+                    new AlphaBeta(MAX_TREE_LEVEL, true, false, 0, transpositionTable);
+            taskAlphaBeta.setStopTime(this.stopTime);
+            Minimax.searchRootMove(taskAlphaBeta, this.board, this.move, this.index, this.treeLevel, this.isWhite,
+                    this.bestRootKey);
+            if(taskAlphaBeta.isStopped()) {
+                isStopped = true;
+            }
+            taskAlphaBetas.add(taskAlphaBeta);
+        }
+    }
+
+    // searchFirst(order, index) moves the given move index to the front of the search order, keeping the order of the
+    //  other moves.
+    static void searchFirst(final int[] order, final int index) {
+        int i = 0;
+        while(order[i] != index) {
+            i++;
+        }
+        System.arraycopy(order, 0, order, 1, i);
+        order[0] = index;
+    }
+}
@@ -0,0 +1,161 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.SearchBoard;
+import com.chessgame.movement.Move;
+import com.chessgame.movement.PackedMove;
+
+import java.time.Duration;
+
+// LazySmp (lazy symmetric multiprocessing) searches the board with several threads at once: the main thread runs the
+//  same iterative deepening as IterativeDeepening, and every helper thread runs its own iterative deepening of the
+//  same board, starting one tree level deeper every other thread and with the root moves in a different order.
+// The threads never wait for each other: they only share the lock-free transposition table, so every board searched
+//  by a helper is answered from the table (or at least searched in a better order) when another thread reaches it.
+//  The best move returned is always the one of the main thread's deepest completed search.
+public class LazySmp implements Algorithms {
+    private final int treeLevel; // deepest tree level searched
+    private final long timeBudget; // milliseconds per move
+    private final AlphaBeta[] alphaBetas; // one per thread, the main thread's first
+    private final TranspositionTable transpositionTable; // shared by all the threads
+    private int completedTreeLevel; // tree level of the last search completed by the main thread
+
+    // LazySmp(timeBudget) searches as deep as it can in the given time budget, with one thread per available processor.
+    public LazySmp(final Duration timeBudget) {
+        this(timeBudget, Runtime.getRuntime().availableProcessors());
+    }
+
+    // LazySmp(timeBudget, threadCount) searches as deep as it can in the given time budget, with the given number of
+    //  threads.
+    public LazySmp(final Duration timeBudget, final int threadCount) {
+        this(IterativeDeepening.MAX_TREE_LEVEL, timeBudget.toMillis(), threadCount, Minimax.TRANSPOSITION_TABLE_MB);
+    }
+
+    // LazySmp(treeLevel, timeBudget, threadCount, transpositionTableMB) stops at the given tree level, or when the given
+    //  time budget (in milliseconds) is spent.
+    public LazySmp(final int treeLevel, final long timeBudget, final int threadCount, final int transpositionTableMB) {
+        if(threadCount <= 0) {
+            throw new IllegalArgumentException("INVALID THREAD COUNT: " + threadCount + "!");
+        }
+        this.treeLevel = Math.min(treeLevel, IterativeDeepening.MAX_TREE_LEVEL);
+        this.timeBudget = timeBudget;
+        this.transpositionTable = new TranspositionTable(transpositionTableMB);
+        this.alphaBetas = new AlphaBeta[threadCount];
+        for(int i = 0; i < threadCount; i++) {
+            this.alphaBetas[i] = new AlphaBeta(this.treeLevel, true, false, 0, this.transpositionTable);
+        }
+    }
+
+    @Override
+    public Move runAlgorithm(final ChessBoard board) {
+        final long startTime = System.currentTimeMillis();
+        final long stopTime = this.timeBudget > Long.MAX_VALUE - startTime ? Long.MAX_VALUE :
+                startTime + this.timeBudget;
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final SearchBoard searchBoard = new SearchBoard(board);
+        final int moveCount = MoveGenerator.generateLegalMoves(searchBoard, searchBoard.getCurrentMover(), moves, 0);
+        if(moveCount == 0) {
+            return null;
+        }
+        this.transpositionTable.newSearch();
+        final Thread[] helpers = new Thread[this.alphaBetas.length - 1];
+        for(int i = 0; i < helpers.length; i++) {
+            final int thread = i + 1;
+            final SearchBoard helperBoard = new SearchBoard(board);
+            helpers[i] = new Thread(() -> searchHelper(helperBoard, thread, stopTime), "LazySmp helper " + thread);
+            helpers[i].setDaemon(true);
+            this.alphaBetas[thread].newThreadSearch();
+        }
+        for(final Thread helper : helpers) {
+            helper.start();
+        }
+        final int bestIndex = searchMain(searchBoard, moves, moveCount, stopTime);
+        for(int i = 1; i < this.alphaBetas.length; i++) {
+            this.alphaBetas[i].abort();
+        }
+        for(final Thread helper : helpers) {
+            try {
+                helper.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return PackedMove.toMove(board, moves[bestIndex]);
+    }
+
+    // getCompletedTreeLevel() returns the tree level of the deepest search completed by the main thread during the last
+    //  runAlgorithm().
+    public int getCompletedTreeLevel() {
+        return this.completedTreeLevel;
+    }
+
+    // getNodeCount() returns the number of boards searched by all the threads during the last runAlgorithm().
+    public long getNodeCount() {
+        long nodeCount = 0;
+        for(final AlphaBeta alphaBeta : this.alphaBetas) {
+            nodeCount += alphaBeta.getNodeCount();
+        }
+        return nodeCount;
+    }
+
+    // getThreadCount() returns the number of threads searching the board, the main thread included.
+    public int getThreadCount() {
+        return this.alphaBetas.length;
+    }
+
+    @Override
+    public String toString() {
+        return "LazySmp";
+    }
+
+    // searchMain(searchBoard, moves, moveCount, stopTime) runs the iterative deepening of the main thread on the given
+    //  legal moves, and returns the index in moves of the best move of its deepest completed search.
+    private int searchMain(final SearchBoard searchBoard, final int[] moves, final int moveCount, final long stopTime) {
+        final AlphaBeta alphaBeta = this.alphaBetas[0];
+        alphaBeta.newThreadSearch();
+        final int[] order = new int[moveCount];
+        for(int i = 0; i < moveCount; i++) {
+            order[i] = i;
+        }
+        int bestIndex = 0;
+        this.completedTreeLevel = 0;
+        // the first search always runs to the end, so that there is always a searched move to return:
+        for(int level = 1; level <= this.treeLevel && System.currentTimeMillis() < stopTime; level++) {
+            final int index = alphaBeta.searchRoot(searchBoard, level, moves, order, moveCount,
+                    level == 1 ? Long.MAX_VALUE : stopTime);
+            if(index == AlphaBeta.NO_MOVE_INDEX) {
+                break;
+            }
+            bestIndex = index;
+            this.completedTreeLevel = level;
+            IterativeDeepening.searchFirst(order, bestIndex);
+            // with a single legal move, there is nothing to choose:
+            if(moveCount == 1) {
+                break;
+            }
+        }
+        return bestIndex;
+    }
+
+    // searchHelper(searchBoard, thread, stopTime) runs the iterative deepening of the given helper thread on its own
+    //  search board until it is aborted or reaches the deepest tree level. Odd helpers start one tree level deeper, and
+    //  each helper starts with the root moves rotated by its thread number, so that the helpers spread over different
+    //  parts of the tree.
+    private void searchHelper(final SearchBoard searchBoard, final int thread, final long stopTime) {
+        final AlphaBeta alphaBeta = this.alphaBetas[thread];
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int moveCount = MoveGenerator.generateLegalMoves(searchBoard, searchBoard.getCurrentMover(), moves, 0);
+        final int[] order = new int[moveCount];
+        for(int i = 0; i < moveCount; i++) {
+            order[i] = (i + thread) % moveCount;
+        }
+        for(int level = 1 + (thread & 1); level <= this.treeLevel; level++) {
+            final int index = alphaBeta.searchRoot(searchBoard, level, moves, order, moveCount, stopTime);
+            if(index == AlphaBeta.NO_MOVE_INDEX) {
+                break;
+            }
+            IterativeDeepening.searchFirst(order, index);
+        }
+    }
+}
@@ -1,57 +1,107 @@
 package com.chessgame.player.aiopponent;
 
 import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.SearchBoard;
 import com.chessgame.movement.Move;
-import com.chessgame.movement.BoardUpdate;
+import com.chessgame.movement.MoveBuffer;
+import com.chessgame.movement.PackedMove;
+import com.chessgame.player.Team;
 
-public class Minimax implements Algorithms{
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class Minimax implements Algorithms, AutoCloseable{
+    public static final int TRANSPOSITION_TABLE_MB = 16; // default transposition table size
+    static final long NO_ROOT_KEY = Long.MIN_VALUE; // no root move searched yet (see rootKey())
     private final BoardScore boardScore;
     private final int treeLevel;
+    private final MoveBuffer moveBuffer; // preallocated move arrays, one per tree level
+    private final TranspositionTable transpositionTable; // values of the boards already searched
+    private final ForkJoinPool pool; // threads searching the root moves in parallel, or null for a serial search
 
     public Minimax(final int treeLevel) {
+        this(treeLevel, TRANSPOSITION_TABLE_MB);
+    }
+
+    public Minimax(final int treeLevel, final int transpositionTableMB) {
+        this(treeLevel, transpositionTableMB, 1);
+    }
+
+    // parallelism is the number of threads the root moves are split across (1 for a serial search, the default).
+    //  Whatever the parallelism, the same best move is returned. A parallel Minimax owns its threads until close().
+    public Minimax(final int treeLevel, final int transpositionTableMB, final int parallelism) {
+        if(parallelism <= 0) {
+            throw new IllegalArgumentException("INVALID PARALLELISM: " + parallelism + "!");
+        }
         this.boardScore = new EvaluateBoardScore();
         this.treeLevel = treeLevel;
+        this.moveBuffer = new MoveBuffer(treeLevel);
+        this.transpositionTable = new TranspositionTable(transpositionTableMB);
+        this.pool = parallelism == 1 ? null : new ForkJoinPool(parallelism);
     }
 
     @Override
     public Move runAlgorithm(ChessBoard board) {
-        Move bestMove = null;
+        // The search explores the moves on a mutable copy of the board, making and unmaking each move in place:
+        final SearchBoard searchBoard = new SearchBoard(board);
+        this.transpositionTable.newSearch();
+        int bestMove = PackedMove.NO_MOVE;
         int currentHighestValue = Integer.MIN_VALUE;
         int currentLowestValue = Integer.MAX_VALUE;
         int currentValue;
         System.out.println(board.getCurrentMovingPlayer() + " THINKING WITH TREE LEVEL = " + this.treeLevel); // DEBUG PURPOSE
-        // check all current player's possible legal moves:
-        for(final Move move : board.getCurrentMovingPlayer().getLegalMoves()) {
-            // We want to apply the algorithm to the next board after the current player has moved:
-            final BoardUpdate update = board.getCurrentMovingPlayer().makeMove(move); // update the current board
-            // if the move is made successfully:
-            if(update.getMoveStatus().isCompleted()) {
-                // if it is currently the White player moving ("enemy" for the AI opponent):
-                if(board.getCurrentMovingPlayer().getTeam().isWhite()) {
-                    // then for the AI's next move, you will try to minimize the value so BLACK team (AI) can win
-                    //  since a negative score means AI opponent is winning:
-                    currentValue = minValue(update.getUpdatedBoard(), this.treeLevel - 1);
-                }
-                // if it is currently the Black player moving (AI moving):
-                else {
-                    // then just do the opposite for the White player:
-                    currentValue = maxValue(update.getUpdatedBoard(), this.treeLevel - 1);
-                }
-                // update highest current value and best move if white is playing and current value is bigger than
-                //  previous highest value (it means that white has the best move right now):
-                if(board.getCurrentMovingPlayer().getTeam().isWhite() && currentValue >= currentHighestValue) {
-                    currentHighestValue = currentValue;
-                    bestMove = move;
-                }
-                // update lowest current value and best move if black is player and current value is smaller than
-                //  previous lowest value (it means black has the best move right now):
-                else if(board.getCurrentMovingPlayer().getTeam().isBlack() && currentValue <= currentLowestValue) {
-                    currentLowestValue = currentValue;
-                    bestMove = move;
-                }
+        final Team currentMover = searchBoard.getCurrentMover();
+        final int[] moves = this.moveBuffer.getMoves(searchBoard.getPly());
+        final int moveCount = MoveGenerator.generateLegalMoves(searchBoard, currentMover, moves, 0);
+        if(this.pool != null && moveCount > 1) {
+            return PackedMove.toMove(board, moves[searchParallel(board, moves, moveCount)]);
+        }
+        // check all current player's legal moves:
+        for(int i = 0; i < moveCount; i++) {
+            final int move = moves[i];
+            // We want to apply the algorithm to the next board after the current player has moved.
+            searchBoard.make(move);
+            // if it is currently the White player moving ("enemy" for the AI opponent):
+            if(currentMover.isWhite()) {
+                // then for the AI's next move, you will try to minimize the value so BLACK team (AI) can win
+                //  since a negative score means AI opponent is winning:
+                currentValue = minValue(searchBoard, this.treeLevel - 1);
+            }
+            // if it is currently the Black player moving (AI moving):
+            else {
+                // then just do the opposite for the White player:
+                currentValue = maxValue(searchBoard, this.treeLevel - 1);
+            }
+            // update highest current value and best move if white is playing and current value is bigger than
+            //  previous highest value (it means that white has the best move right now):
+            if(currentMover.isWhite() && currentValue >= currentHighestValue) {
+                currentHighestValue = currentValue;
+                bestMove = move;
             }
+            // update lowest current value and best move if black is player and current value is smaller than
+            //  previous lowest value (it means black has the best move right now):
+            else if(currentMover.isBlack() && currentValue <= currentLowestValue) {
+                currentLowestValue = currentValue;
+                bestMove = move;
+            }
+            searchBoard.unmake(move); // back to the current board
+        }
+        if(bestMove == PackedMove.NO_MOVE) {
+            return null;
+        }
+        // the GUI works with the Move of the (immutable) ChessBoard matching the best packed move:
+        return PackedMove.toMove(board, bestMove);
+    }
+
+    // close() stops the threads of a parallel Minimax once their current search is done. The Minimax must not be used
+    //  afterwards.
+    @Override
+    public void close() {
+        if(this.pool != null) {
+            this.pool.shutdown();
         }
-        return bestMove;
     }
 
     @Override
@@ -59,56 +109,163 @@ public class Minimax implements Algorithms{
         return "Minimax";
     }
 
+    // searchParallel(board, moves, moveCount) searches each of the given legal root moves of the board in its own
+    //  fork/join task, and returns the index in moves of the best move: the same one as the serial search, i.e. the
+    //  last move in moves of the best value.
+    // The tasks share the best (value, index) found so far, updated atomically: a task only needs to search its move
+    //  precisely enough to know if it beats it, so each subtree is searched with alpha-beta pruning within that bound
+    //  (see AlphaBeta.searchRoot(), same tie rule). A move that beats it gets its exact value, so the best move always
+    //  does, whatever the order in which the tasks run.
+    private int searchParallel(final ChessBoard board, final int[] moves, final int moveCount) {
+        final boolean isWhite = board.getCurrentMovingPlayer().getTeam().isWhite();
+        final AtomicLong bestRootKey = new AtomicLong(NO_ROOT_KEY);
+        final RootMoveSearch[] tasks = new RootMoveSearch[moveCount];
+        for(int i = 0; i < moveCount; i++) {
+            // each task makes its move on its own copy of the board:
+            tasks[i] = new RootMoveSearch(new SearchBoard(board), moves[i], i, isWhite, bestRootKey);
+            this.pool.execute(tasks[i]);
+        }
+        for(final RootMoveSearch task : tasks) {
+            task.join();
+        }
+        return (int) bestRootKey.get();
+    }
+
+    // rootKey(value, index, isWhite) packs the value of the root move of the given index into a long that is higher for
+    //  a better move of the given moving team: a better value, or the same value and a move coming later in moves.
+    static long rootKey(final int value, final int index, final boolean isWhite) {
+        return ((long) (isWhite ? value : -value) << 32) | index;
+    }
+
+    // searchRootMove(alphaBeta, board, move, index, treeLevel, isWhite, bestRootKey) searches the root move of the
+    //  given index in moves down to the given tree level with the given AlphaBeta, on a root board of its own, and
+    //  raises bestRootKey (see rootKey(), NO_ROOT_KEY if no move was searched yet) if the move beats the best one
+    //  so far. Nothing is recorded if the AlphaBeta stopped before the search was done.
+    static void searchRootMove(final AlphaBeta alphaBeta, final SearchBoard board, final int move, final int index,
+                               final int treeLevel, final boolean isWhite, final AtomicLong bestRootKey) {
+        final long bestKey = bestRootKey.get();
+        // the move needs an exact value only if it can beat the best one so far: a higher value (White) or a lower
+        //  value (Black), or the same value if it comes later in moves:
+        int alpha = -AlphaBeta.INFINITE_SCORE;
+        int beta = AlphaBeta.INFINITE_SCORE;
+        if(bestKey != NO_ROOT_KEY) {
+            final int bestValue = (int) (bestKey >> 32);
+            final int tieMargin = index > (int) bestKey ? 1 : 0;
+            if(isWhite) {
+                alpha = bestValue - tieMargin;
+            }
+            else {
+                beta = -bestValue + tieMargin;
+            }
+        }
+        board.make(move);
+        final int value = isWhite ? alphaBeta.minValue(board, treeLevel - 1, alpha, beta) :
+                alphaBeta.maxValue(board, treeLevel - 1, alpha, beta);
+        board.unmake(move);
+        if(!alphaBeta.isStopped() && value > alpha && value < beta) {
+            bestRootKey.accumulateAndGet(rootKey(value, index, isWhite), Math::max);
+        }
+    }
+
+    // RootMoveSearch is the fork/join task searching a single root move with its own AlphaBeta, sharing the
+    //  transposition table of the Minimax.
+    private final class RootMoveSearch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final SearchBoard board;
+        private final int move;
+        private final int index; // index of the move in the root moves
+        private final boolean isWhite; // true if White moves on the root board
+        private final AtomicLong bestRootKey; // rootKey() of the best root move so far, or NO_ROOT_KEY
+
+        private RootMoveSearch(final SearchBoard board, final int move, final int index, final boolean isWhite,
+                               final AtomicLong bestRootKey) {
+            this.board = board;
+            this.move = move;
+            this.index = index;
+            this.isWhite = isWhite;
+            this.bestRootKey = bestRootKey;
+        }
+
+        @Override
+        protected void compute() {
+            searchRootMove(new AlphaBeta(treeLevel, false, false, 0, transpositionTable), this.board, this.move,
+                    this.index, treeLevel, this.isWhite, this.bestRootKey);
+        }
+    }
+
     // Basic Algorithm Process: get the min or max value at the lowest tree level (depending if odd or even level) and
     //  propagate that value back up to the top of the tree using minValue and maxValue's mutual recursion
     // minValue() returns the minimum value on the specified tree level.
-    public int minValue(final ChessBoard board, final int treeLevel) {
+    public int minValue(final SearchBoard board, final int treeLevel) {
         // TO STOP THE MINIMIZING PROCESS:
-        if(treeLevel == 0 || isGameOver(board)) {
+        if(treeLevel == 0) {
             return this.boardScore.score(board, treeLevel);
         }
+        // a board already searched with the same number of tree levels below it has the same value (board scores
+        //  depend on the tree level they are found on, so a board searched deeper or shallower does not):
+        final long boardKey = board.getZobristKey();
+        final long entry = this.transpositionTable.probe(boardKey);
+        if(entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) == treeLevel &&
+                TranspositionTable.getBound(entry) == TranspositionTable.EXACT) {
+            return TranspositionTable.getScore(entry);
+        }
+        int bestMove = PackedMove.NO_MOVE;
         int currentLowestValue = Integer.MAX_VALUE; // current seen lowest value in this level
-        // check all current player's possible legal moves:
-        for(final Move move : board.getCurrentMovingPlayer().getLegalMoves()) {
-            // We want to apply the algorithm to the next board after the current player has moved:
-            final BoardUpdate update = board.getCurrentMovingPlayer().makeMove(move); // update the current board
-            // if the move is made successfully:
-            if(update.getMoveStatus().isCompleted()) {
-                // when alternating between tree levels, we alternate between finding the minimum and maximum value too:
-                final int currentValue = maxValue(update.getUpdatedBoard(), treeLevel - 1);
-                if(currentValue <= currentLowestValue) {
-                    currentLowestValue = currentValue;
-                }
+        final int[] moves = this.moveBuffer.getMoves(board.getPly());
+        final int moveCount = MoveGenerator.generateLegalMoves(board, board.getCurrentMover(), moves, 0);
+        // TO STOP THE MINIMIZING PROCESS: no legal move means the game is over (check mate or tie)
+        if(moveCount == 0) {
+            return this.boardScore.score(board, treeLevel);
+        }
+        // check all current player's legal moves:
+        for(int i = 0; i < moveCount; i++) {
+            board.make(moves[i]);
+            // when alternating between tree levels, we alternate between finding the minimum and maximum value too:
+            final int currentValue = maxValue(board, treeLevel - 1);
+            if(currentValue <= currentLowestValue) {
+                currentLowestValue = currentValue;
+                bestMove = moves[i];
             }
+            board.unmake(moves[i]);
         }
+        this.transpositionTable.store(boardKey, treeLevel, currentLowestValue, TranspositionTable.EXACT, bestMove);
         return currentLowestValue;
     }
 
     // maxValue() returns the maximum value on the specified tree level.
-    public int maxValue(final ChessBoard board, final int treeLevel) {
+    public int maxValue(final SearchBoard board, final int treeLevel) {
         // TO STOP THE MAXIMIZING PROCESS:
-        if(treeLevel == 0 || isGameOver(board)) {
+        if(treeLevel == 0) {
             return this.boardScore.score(board, treeLevel);
         }
+        // a board already searched with the same number of tree levels below it has the same value (board scores
+        //  depend on the tree level they are found on, so a board searched deeper or shallower does not):
+        final long boardKey = board.getZobristKey();
+        final long entry = this.transpositionTable.probe(boardKey);
+        if(entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) == treeLevel &&
+                TranspositionTable.getBound(entry) == TranspositionTable.EXACT) {
+            return TranspositionTable.getScore(entry);
+        }
+        int bestMove = PackedMove.NO_MOVE;
         int currentHighestValue = Integer.MIN_VALUE; // current seen lowest value in this level
-        // check all current player's possible legal moves:
-        for(final Move move : board.getCurrentMovingPlayer().getLegalMoves()) {
-            // We want to apply the algorithm to the next board after the current player has moved:
-            final BoardUpdate update = board.getCurrentMovingPlayer().makeMove(move); // update the current board
-            // if the move is made successfully:
-            if(update.getMoveStatus().isCompleted()) {
-                // when alternating between tree levels, we alternate between finding the maximum and minimum value too:
-                final int currentValue = minValue(update.getUpdatedBoard(), treeLevel - 1);
-                if(currentValue >= currentHighestValue) {
-                    currentHighestValue = currentValue;
-                }
+        final int[] moves = this.moveBuffer.getMoves(board.getPly());
+        final int moveCount = MoveGenerator.generateLegalMoves(board, board.getCurrentMover(), moves, 0);
+        // TO STOP THE MAXIMIZING PROCESS: no legal move means the game is over (check mate or tie)
+        if(moveCount == 0) {
+            return this.boardScore.score(board, treeLevel);
+        }
+        // check all current player's legal moves:
+        for(int i = 0; i < moveCount; i++) {
+            board.make(moves[i]);
+            // when alternating between tree levels, we alternate between finding the maximum and minimum value too:
+            final int currentValue = minValue(board, treeLevel - 1);
+            if(currentValue >= currentHighestValue) {
+                currentHighestValue = currentValue;
+                bestMove = moves[i];
             }
+            board.unmake(moves[i]);
         }
+        this.transpositionTable.store(boardKey, treeLevel, currentHighestValue, TranspositionTable.EXACT, bestMove);
         return currentHighestValue;
     }
-
-    // isGameOver(board) checks if the current chess board is game over (check mate or tie).
-    private static boolean isGameOver(final ChessBoard board) {
-        return board.getCurrentMovingPlayer().isCheckMate() || board.getCurrentMovingPlayer().isStaleMate();
-    }
 }
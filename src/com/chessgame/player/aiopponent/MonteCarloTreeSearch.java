@@ -0,0 +1,296 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.SearchBoard;
+import com.chessgame.movement.Move;
+import com.chessgame.movement.MoveBuffer;
+import com.chessgame.movement.PackedMove;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// MonteCarloTreeSearch (UCT) grows a tree of the boards reachable from the root board, one playout at a time: it walks
+//  down the tree choosing at each board the move with the best upper confidence bound (its average result plus an
+//  exploration bonus for the moves tried least), adds the moves of the board it ends on to the tree, plays a game out
+//  from there, and adds the result to every board of the walk. The move returned is the root move tried the most.
+// The search stops at its time budget or playout budget, and can be stopped after any playout: the more time it gets,
+//  the better the move, whatever the board.
+// The tree lives in a pool of primitive arrays allocated once (a node is an index in them), and is grown by several
+//  threads at once (tree parallelism): a thread walking down counts its visit right away but its result only at the
+//  end (a virtual loss), so that the other threads explore other moves in the meantime.
+// Playouts are random games played to the end, or, with evaluation guided playouts, random captures and promotions
+//  until the board is quiet, scored by EvaluateBoardScore.
+public class MonteCarloTreeSearch implements Algorithms {
+    private static final int NODE_POOL_SIZE = 1 << 20; // maximum number of boards in the tree
+    private static final int ROOT = 0;
+    private static final int RESULT_SCALE = 1000; // result of a White win (0 for a Black win, half for a tie)
+    private static final double EXPLORATION = 1.4; // weight of the exploration bonus
+    private static final int EXPANSION_VISITS = 2; // visits of a board before its moves are added to the tree
+    private static final int MAX_TREE_PLY = SearchBoard.MAX_PLY / 2; // deepest board of the tree
+    private static final int EVALUATED_PLAYOUT_PLY = 8; // most moves of an evaluation guided playout
+    private static final double SCORE_PER_RESULT_UNIT = 400.0; // board score of a 1/(1+e^-1) White win probability
+    // Expansion states of a node:
+    private static final int UNEXPANDED = 0;
+    private static final int EXPANDING = 1; // a thread is adding its moves to the tree
+    private static final int EXPANDED = 2;
+    private static final int FULL = 3; // the node pool had no room for its moves: it stays a leaf
+
+    private final long timeBudget; // milliseconds per move
+    private final long playoutBudget; // playouts per move
+    private final int threadCount;
+    private final boolean isEvaluationGuided; // true if playouts are captures scored by EvaluateBoardScore
+    // The node pool: the children of a node are contiguous, from firstChild to firstChild + childCount - 1.
+    private final int[] moves; // packed move leading to each node
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final AtomicIntegerArray expansionStates;
+    private final AtomicIntegerArray visits; // playouts through each node, the ones still running included
+    private final AtomicLongArray results; // sum of the playout results for the team that moved to each node
+    private final AtomicInteger nodeCount; // nodes of the pool in use
+    private final AtomicLong playoutCount;
+    private volatile long stopTime; // System.currentTimeMillis() at which the search stops
+    private boolean isWhiteRoot; // true if White moves on the root board
+    private long searchTime; // milliseconds taken by the last search
+
+    // MonteCarloTreeSearch(timeBudget) plays evaluation guided playouts on one thread per available processor until the
+    //  given time budget is spent, with no limit on their number.
+    public MonteCarloTreeSearch(final Duration timeBudget) {
+        this(timeBudget.toMillis(), Long.MAX_VALUE, Runtime.getRuntime().availableProcessors(), true);
+    }
+
+    // MonteCarloTreeSearch(timeBudget, playoutBudget, threadCount, isEvaluationGuided) stops when the given time budget
+    //  (in milliseconds) is spent or the given number of playouts is played, whichever comes first.
+    public MonteCarloTreeSearch(final long timeBudget, final long playoutBudget, final int threadCount,
+                                final boolean isEvaluationGuided) {
+        if(threadCount <= 0) {
+            throw new IllegalArgumentException("INVALID THREAD COUNT: " + threadCount + "!");
+        }
+        this.timeBudget = timeBudget;
+        this.playoutBudget = playoutBudget;
+        this.threadCount = threadCount;
+        this.isEvaluationGuided = isEvaluationGuided;
+        this.moves = new int[NODE_POOL_SIZE];
+        this.firstChild = new int[NODE_POOL_SIZE];
+        this.childCount = new int[NODE_POOL_SIZE];
+        this.expansionStates = new AtomicIntegerArray(NODE_POOL_SIZE);
+        this.visits = new AtomicIntegerArray(NODE_POOL_SIZE);
+        this.results = new AtomicLongArray(NODE_POOL_SIZE);
+        this.nodeCount = new AtomicInteger();
+        this.playoutCount = new AtomicLong();
+    }
+
+    @Override
+    public Move runAlgorithm(final ChessBoard board) {
+        final long startTime = System.currentTimeMillis();
+        this.stopTime = this.timeBudget > Long.MAX_VALUE - startTime ? Long.MAX_VALUE : startTime + this.timeBudget;
+        final SearchBoard searchBoard = new SearchBoard(board);
+        this.isWhiteRoot = searchBoard.getCurrentMover().isWhite();
+        clearTree();
+        this.playoutCount.set(0);
+        expand(ROOT, searchBoard, new int[MoveGenerator.MAX_MOVES]);
+        if(this.childCount[ROOT] == 0) {
+            return null;
+        }
+        // with a single legal move, there is nothing to choose:
+        if(this.childCount[ROOT] > 1) {
+            final Thread[] workers = new Thread[this.threadCount - 1];
+            for(int i = 0; i < workers.length; i++) {
+                final SearchBoard workerBoard = new SearchBoard(board);
+                final int worker = i + 1;
+                workers[i] = new Thread(() -> search(workerBoard, worker), "MonteCarloTreeSearch worker " + worker);
+                workers[i].setDaemon(true);
+                workers[i].start();
+            }
+            search(searchBoard, 0);
+            for(final Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        this.searchTime = System.currentTimeMillis() - startTime;
+        int bestChild = this.firstChild[ROOT];
+        for(int child = bestChild + 1; child < this.firstChild[ROOT] + this.childCount[ROOT]; child++) {
+            if(this.visits.get(child) > this.visits.get(bestChild)) {
+                bestChild = child;
+            }
+        }
+        return PackedMove.toMove(board, this.moves[bestChild]);
+    }
+
+    // getPlayoutCount() returns the number of playouts played by the last runAlgorithm().
+    public long getPlayoutCount() {
+        return this.playoutCount.get();
+    }
+
+    // getPlayoutsPerSecond() returns the number of playouts per second played by the last runAlgorithm().
+    public double getPlayoutsPerSecond() {
+        return this.playoutCount.get() * 1000.0 / Math.max(1L, this.searchTime);
+    }
+
+    // getNodeCount() returns the number of boards in the tree grown by the last runAlgorithm().
+    public int getNodeCount() {
+        return this.nodeCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return "MonteCarloTreeSearch";
+    }
+
+    // search(board, worker) plays playouts on the given root search board (of its own) until the search stops.
+    private void search(final SearchBoard board, final int worker) {
+        final SplittableRandom random = new SplittableRandom(worker);
+        final MoveBuffer moveBuffer = new MoveBuffer(SearchBoard.MAX_PLY);
+        final int[] path = new int[MAX_TREE_PLY + 1]; // nodes walked down from the root
+        final int[] playoutMoves = new int[SearchBoard.MAX_PLY];
+        final BoardScore boardScore = new EvaluateBoardScore();
+        while(System.currentTimeMillis() < this.stopTime && this.playoutCount.get() < this.playoutBudget) {
+            // selection: walk down the tree, counting the visits right away (virtual loss)
+            int node = ROOT;
+            int pathLength = 0;
+            path[pathLength++] = ROOT;
+            this.visits.incrementAndGet(ROOT);
+            while(board.getPly() < MAX_TREE_PLY) {
+                final int state = this.expansionStates.get(node);
+                if(state == UNEXPANDED && this.visits.get(node) >= EXPANSION_VISITS &&
+                        this.expansionStates.compareAndSet(node, UNEXPANDED, EXPANDING)) {
+                    expand(node, board, moveBuffer.getMoves(board.getPly()));
+                }
+                else if(state != EXPANDED) {
+                    break;
+                }
+                // no legal move means the game is over (check mate or tie):
+                if(this.childCount[node] == 0) {
+                    break;
+                }
+                node = selectChild(node);
+                board.make(this.moves[node]);
+                this.visits.incrementAndGet(node);
+                path[pathLength++] = node;
+            }
+            // simulation: play the game out from the board reached
+            final int whiteResult = playout(board, random, moveBuffer, playoutMoves, boardScore);
+            // backpropagation: the result counts for the team that moved to each node
+            for(int i = pathLength - 1; i > 0; i--) {
+                board.unmake(this.moves[path[i]]);
+                final boolean isWhiteMove = (i % 2 == 1) == this.isWhiteRoot;
+                this.results.addAndGet(path[i], isWhiteMove ? whiteResult : RESULT_SCALE - whiteResult);
+            }
+            this.playoutCount.incrementAndGet();
+        }
+    }
+
+    // selectChild(node) returns the child of the given (expanded) node with the highest upper confidence bound for
+    //  the team moving on its board: an untried child first.
+    private int selectChild(final int node) {
+        final double logVisits = Math.log(Math.max(1, this.visits.get(node)));
+        int bestChild = this.firstChild[node];
+        double bestBound = Double.NEGATIVE_INFINITY;
+        for(int child = this.firstChild[node]; child < this.firstChild[node] + this.childCount[node]; child++) {
+            final int childVisits = this.visits.get(child);
+            if(childVisits == 0) {
+                return child;
+            }
+            final double bound = this.results.get(child) / (double) (childVisits * RESULT_SCALE) +
+                    EXPLORATION * Math.sqrt(logVisits / childVisits);
+            if(bound > bestBound) {
+                bestBound = bound;
+                bestChild = child;
+            }
+        }
+        return bestChild;
+    }
+
+    // expand(node, board, legalMoves) adds the legal moves of the given board (of the given node), generated into the
+    //  given array, to the tree as children of the node. If the node pool is full, the node is left a leaf for good.
+    private void expand(final int node, final SearchBoard board, final int[] legalMoves) {
+        final int moveCount = MoveGenerator.generateLegalMoves(board, board.getCurrentMover(), legalMoves, 0);
+        // the children are only reserved if they fit, so that nodeCount never goes past NODE_POOL_SIZE:
+        int first;
+        do {
+            first = this.nodeCount.get();
+            if(first + moveCount > NODE_POOL_SIZE) {
+                // the pool only grows during a search, so no other thread tries again:
+                this.expansionStates.set(node, FULL);
+                return;
+            }
+        } while(!this.nodeCount.compareAndSet(first, first + moveCount));
+        System.arraycopy(legalMoves, 0, this.moves, first, moveCount);
+        this.firstChild[node] = first;
+        this.childCount[node] = moveCount;
+        // publishes the children to the other threads:
+        this.expansionStates.set(node, EXPANDED);
+    }
+
+    // playout(board, random, moveBuffer, playoutMoves, boardScore) plays random legal moves on the board until the game
+    //  is over, takes them back and returns the result for White: RESULT_SCALE for a White win, 0 for a Black win, half
+    //  of it for a tie. An evaluation guided playout only plays random captures and promotions, and once the board is
+    //  quiet (or after EVALUATED_PLAYOUT_PLY moves), returns the White win probability of its board score instead.
+    private int playout(final SearchBoard board, final SplittableRandom random, final MoveBuffer moveBuffer,
+                        final int[] playoutMoves, final BoardScore boardScore) {
+        final int maxPly = this.isEvaluationGuided ? EVALUATED_PLAYOUT_PLY : SearchBoard.MAX_PLY - 1 - board.getPly();
+        int ply = 0;
+        int whiteResult;
+        while(true) {
+            final int[] legalMoves = moveBuffer.getMoves(board.getPly());
+            int moveCount = MoveGenerator.generateLegalMoves(board, board.getCurrentMover(), legalMoves, 0);
+            if(moveCount == 0) {
+                // check mate: the moving team lost. Otherwise a tie.
+                whiteResult = !board.isCheck() ? RESULT_SCALE / 2 :
+                        board.getCurrentMover().isWhite() ? 0 : RESULT_SCALE;
+                break;
+            }
+            if(this.isEvaluationGuided) {
+                moveCount = keepTacticalMoves(legalMoves, moveCount);
+            }
+            if(moveCount == 0 || ply == maxPly) {
+                whiteResult = this.isEvaluationGuided ? winProbability(boardScore.score(board, 0)) :
+                        RESULT_SCALE / 2;
+                break;
+            }
+            playoutMoves[ply] = legalMoves[random.nextInt(moveCount)];
+            board.make(playoutMoves[ply++]);
+        }
+        while(ply > 0) {
+            board.unmake(playoutMoves[--ply]);
+        }
+        return whiteResult;
+    }
+
+    // keepTacticalMoves(moves, moveCount) moves the captures and promotions of the given packed moves to the front of
+    //  the array and returns their number.
+    private static int keepTacticalMoves(final int[] moves, final int moveCount) {
+        int tacticalCount = 0;
+        for(int i = 0; i < moveCount; i++) {
+            if(PackedMove.isKillerMove(moves[i]) || PackedMove.isPromotion(moves[i])) {
+                moves[tacticalCount++] = moves[i];
+            }
+        }
+        return tacticalCount;
+    }
+
+    // winProbability(score) returns the result for White expected from a board of the given score (logistic curve).
+    private static int winProbability(final int score) {
+        return (int) (RESULT_SCALE / (1.0 + Math.exp(-score / SCORE_PER_RESULT_UNIT)));
+    }
+
+    // clearTree() empties the node pool, leaving only the (unexpanded) root.
+    private void clearTree() {
+        final int usedNodes = getNodeCount();
+        for(int node = 0; node < Math.max(1, usedNodes); node++) {
+            this.expansionStates.set(node, UNEXPANDED);
+            this.visits.set(node, 0);
+            this.results.set(node, 0L);
+            this.childCount[node] = 0;
+        }
+        this.nodeCount.set(1);
+    }
+}
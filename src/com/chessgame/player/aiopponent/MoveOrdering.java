@@ -0,0 +1,146 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.BitBoard;
+import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.movement.PackedMove;
+import com.chessgame.pieces.ChessPiece.pieceType;
+
+import java.util.Arrays;
+
+// MoveOrdering sorts the moves of each board of a search so that the moves most likely to cause a refutation are
+//  searched first, which is what lets alpha-beta pruning cut off most of the tree. Moves are searched in this order:
+//  1. the best move stored in the transposition table for the board,
+//  2. captures and promotions, most valuable victim first, then least valuable attacker first (MVV-LVA),
+//  3. the two killer moves of the tree level: quiet moves that recently caused a refutation on another board at the
+//     same number of moves from the root,
+//  4. the other quiet moves, by their history score: how often and how deep each (piece team, current tile,
+//     destination tile) move caused a refutation anywhere in the search.
+// Moves are picked one at a time (selection sort), since a refutation often comes before the end of the list.
+public final class MoveOrdering {
+    private static final int TRANSPOSITION_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int KILLER_SCORE = 1 << 27;
+    private static final int MAX_HISTORY_SCORE = 1 << 26; // history scores are halved past this value
+    private static final int KILLER_SLOTS = 2;
+    private static final pieceType[] PIECE_TYPES = pieceType.values();
+
+    private final int[][] plyScores; // score of each move, one array per ply (like MoveBuffer)
+    private final int[][] killerMoves; // KILLER_SLOTS killer moves per ply, most recent first
+    private final int[][][] history; // [team ordinal][current tile][destination tile] (butterfly table)
+
+    public MoveOrdering(final int maxPly) {
+        this.plyScores = new int[maxPly + 1][MoveGenerator.MAX_MOVES];
+        this.killerMoves = new int[maxPly + 1][KILLER_SLOTS];
+        this.history = new int[2][ChessBoard.TOTAL_TILES][ChessBoard.TOTAL_TILES];
+    }
+
+    // newSearch() prepares the ordering for a new search: the killer moves of the previous search are forgotten and its
+    //  history scores are halved, so that they still help without outweighing the new search.
+    public void newSearch() {
+        for (final int[] killers : this.killerMoves) {
+            Arrays.fill(killers, PackedMove.NO_MOVE);
+        }
+        ageHistory();
+    }
+
+    // scoreMoves(moves, moveCount, transpositionEntry, ply) scores the given moves of the board at the given ply and
+    //  returns the scores (parallel to moves) to pass to pickMove(). transpositionEntry is the entry of the board in the
+    //  transposition table, or TranspositionTable.NO_ENTRY.
+    public int[] scoreMoves(final int[] moves, final int moveCount, final long transpositionEntry, final int ply) {
+        final int[] scores = this.plyScores[ply];
+        final int[] killers = this.killerMoves[ply];
+        for (int i = 0; i < moveCount; i++) {
+            final int move = moves[i];
+            if (TranspositionTable.isMove(transpositionEntry, move)) {
+                scores[i] = TRANSPOSITION_MOVE_SCORE;
+            }
+            else if (PackedMove.isKillerMove(move) || PackedMove.isPromotion(move)) {
+                scores[i] = CAPTURE_SCORE + mvvLva(move);
+            }
+            else if (move == killers[0]) {
+                scores[i] = KILLER_SCORE + 1;
+            }
+            else if (move == killers[1]) {
+                scores[i] = KILLER_SCORE;
+            }
+            else {
+                scores[i] = historyScore(move);
+            }
+        }
+        return scores;
+    }
+
+    // pickMove(moves, scores, index, moveCount) swaps the best scored move left (from index to moveCount) into the given
+    //  index, and returns it.
+    public static int pickMove(final int[] moves, final int[] scores, final int index, final int moveCount) {
+        int best = index;
+        for (int i = index + 1; i < moveCount; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        final int move = moves[best];
+        moves[best] = moves[index];
+        moves[index] = move;
+        final int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    // refutation(move, ply, treeLevel) records that the given move caused a refutation on the board at the given ply,
+    //  searched with the given number of tree levels below it. Only quiet moves are recorded: captures and promotions
+    //  are already searched early.
+    public void refutation(final int move, final int ply, final int treeLevel) {
+        if (PackedMove.isKillerMove(move) || PackedMove.isPromotion(move)) {
+            return;
+        }
+        final int[] killers = this.killerMoves[ply];
+        if (killers[0] != move) {
+            killers[1] = killers[0];
+            killers[0] = move;
+        }
+        final int[] destinations = this.history[PackedMove.getMovingPiece(move) / BitBoard.PIECE_TYPES]
+                [PackedMove.getCurrentCrd(move)];
+        // a refutation found deep in the tree saved more work than one found close to the leaves:
+        destinations[PackedMove.getDestinationCrd(move)] += treeLevel * treeLevel;
+        if (destinations[PackedMove.getDestinationCrd(move)] > MAX_HISTORY_SCORE) {
+            ageHistory();
+        }
+    }
+
+    // mvvLva(move) returns the capture order score of the given capture or promotion: the points of the captured piece
+    //  (and of the promoted piece) first, then the points of the moving piece, lowest first.
+    private static int mvvLva(final int move) {
+        final int capturedPiece = PackedMove.getCapturedPiece(move);
+        final int promotedPiece = PackedMove.getPromotedPiece(move);
+        int victimPoints = capturedPiece == PackedMove.NO_PIECE ? 0 : piecePoints(capturedPiece);
+        if (promotedPiece != PackedMove.NO_PIECE) {
+            victimPoints += piecePoints(promotedPiece);
+        }
+        return victimPoints * 100 - piecePoints(PackedMove.getMovingPiece(move));
+    }
+
+    // historyScore(move) returns the history score of the given quiet move.
+    private int historyScore(final int move) {
+        return this.history[PackedMove.getMovingPiece(move) / BitBoard.PIECE_TYPES][PackedMove.getCurrentCrd(move)]
+                [PackedMove.getDestinationCrd(move)];
+    }
+
+    // piecePoints(index) returns the points of the piece of the given board index (see BitBoard.boardIndex()).
+    private static int piecePoints(final int index) {
+        return PIECE_TYPES[index % BitBoard.PIECE_TYPES].getPiecePoints();
+    }
+
+    // ageHistory() halves every history score.
+    private void ageHistory() {
+        for (final int[][] teamHistory : this.history) {
+            for (final int[] destinations : teamHistory) {
+                for (int destCrd = 0; destCrd < destinations.length; destCrd++) {
+                    destinations[destCrd] >>= 1;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.BitBoard;
+import com.chessgame.board.PieceListener;
+import com.chessgame.board.SearchBoard;
+import com.chessgame.pieces.ChessPiece;
+import com.chessgame.player.Team;
+
+// An NnueAccumulator holds the output of the feature layer of the NnueBoardScore network for the SearchBoard it is
+//  attached to, one accumulator per team: the feature layer biases plus the weights of every HalfKP feature of the
+//  board seen by that team (the tile of its King, with each other piece and its tile).
+// Listening to the pieces of the board, it adds or subtracts the weights of one feature per piece placed or removed
+//  while moves are made and unmade, instead of summing every feature of every board scored. A King move changes every
+//  feature of its team, so that accumulator is then computed again from scratch.
+public final class NnueAccumulator implements PieceListener {
+    private static final int KING = ChessPiece.pieceType.KING.ordinal();
+    private static final int ROW_MIRROR = 56; // XOR of a tile coordinate with the same tile seen from the other side
+
+    private final NnueWeights weights;
+    private final int[][] accumulators; // one per team (by ordinal)
+    private final int[] kingTiles; // tile of each team's King, from its own side
+    private SearchBoard board; // board the accumulators belong to, or null
+
+    public NnueAccumulator(final NnueWeights weights) {
+        this.weights = weights;
+        this.accumulators = new int[2][weights.getHiddenSize()];
+        this.kingTiles = new int[2];
+    }
+
+    // attach(board) makes the accumulators follow the given search board, detaching them from the previous one.
+    public void attach(final SearchBoard board) {
+        if(this.board != null && this.board.getPieceListener() == this) {
+            this.board.setPieceListener(null);
+        }
+        this.board = board;
+        board.setPieceListener(this);
+        for(final Team team : Team.values()) {
+            refresh(team);
+        }
+    }
+
+    // isAttached(board) checks if the accumulators follow the given search board.
+    public boolean isAttached(final SearchBoard board) {
+        return this.board == board && board.getPieceListener() == this;
+    }
+
+    // getAccumulator(team) returns the accumulator of the given team.
+    public int[] getAccumulator(final Team team) {
+        return this.accumulators[team.ordinal()];
+    }
+
+    @Override
+    public void piecePut(final int index, final int coordinate) {
+        if(index % BitBoard.PIECE_TYPES == KING) {
+            refresh(Team.values()[index / BitBoard.PIECE_TYPES]);
+            return;
+        }
+        for(final Team team : Team.values()) {
+            this.weights.addFeature(this.accumulators[team.ordinal()], feature(team, index, coordinate), 1);
+        }
+    }
+
+    @Override
+    public void pieceRemoved(final int index, final int coordinate) {
+        // the King is put back right away, and then its team's accumulator is computed again:
+        if(index % BitBoard.PIECE_TYPES == KING) {
+            return;
+        }
+        for(final Team team : Team.values()) {
+            this.weights.addFeature(this.accumulators[team.ordinal()], feature(team, index, coordinate), -1);
+        }
+    }
+
+    // refresh(team) computes the accumulator of the given team from scratch, with every piece on the board.
+    private void refresh(final Team team) {
+        final BitBoard bitBoard = this.board.getBitBoard();
+        this.kingTiles[team.ordinal()] = perspectiveTile(team, bitBoard.getKingTile(team));
+        final int[] accumulator = this.accumulators[team.ordinal()];
+        this.weights.resetAccumulator(accumulator);
+        for(int index = 0; index < 2 * BitBoard.PIECE_TYPES; index++) {
+            if(index % BitBoard.PIECE_TYPES == KING) {
+                continue;
+            }
+            for(long mask = bitBoard.getPieces(index); mask != BitBoard.EMPTY; mask &= mask - 1) {
+                this.weights.addFeature(accumulator, feature(team, index, BitBoard.firstTile(mask)), 1);
+            }
+        }
+    }
+
+    // feature(team, index, coordinate) returns the HalfKP feature of a (non King) piece of the given board index on the
+    //  given tile, seen by the given team.
+    private int feature(final Team team, final int index, final int coordinate) {
+        final int type = index % BitBoard.PIECE_TYPES;
+        final boolean isOwnPiece = index / BitBoard.PIECE_TYPES == team.ordinal();
+        return NnueWeights.feature(this.kingTiles[team.ordinal()], 2 * type + (isOwnPiece ? 0 : 1),
+                perspectiveTile(team, coordinate));
+    }
+
+    // perspectiveTile(team, coordinate) returns the given tile seen from the side of the given team: Black sees the
+    //  board upside down, so that both teams see their own pieces on the bottom rows.
+    private static int perspectiveTile(final Team team, final int coordinate) {
+        return team.isWhite() ? coordinate : coordinate ^ ROW_MIRROR;
+    }
+}
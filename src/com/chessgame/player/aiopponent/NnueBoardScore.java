@@ -0,0 +1,85 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.SearchBoard;
+import com.chessgame.player.Team;
+
+// NnueBoardScore scores a board with an efficiently updatable neural network (NNUE) instead of hand written terms:
+//  - the feature layer turns the HalfKP features of the board (the tile of each team's King, with each other piece and
+//    its tile) into one accumulator per team, kept up to date move after move by an NnueAccumulator,
+//  - the hidden layer reads the accumulators of the moving team and of its enemy, clipped to [0, ACTIVATION_MAX],
+//  - the output layer turns the clipped hidden neurons into the score of the moving team.
+// The weights come from an NnueWeights file, quantized to integers: the layers only add and multiply ints, in plain
+//  loops over arrays that the JIT compiler turns into vector instructions where the processor has them.
+// A check mate scores like in EvaluateBoardScore, so that the searches find the quickest one. An NnueBoardScore
+//  follows a single search board at a time (see NnueAccumulator.attach()), so each search thread needs its own.
+public class NnueBoardScore implements BoardScore {
+    private static final int ACTIVATION_MAX = 127; // clipped ReLU of the feature and hidden layers
+    private static final int HIDDEN_SHIFT = 6; // hidden layer sums are divided by 64 before being clipped
+    private static final int OUTPUT_DIVISOR = 16; // output layer units per point of score
+
+    private final NnueWeights weights;
+    private final NnueAccumulator accumulator;
+    private final int[] activations; // clipped accumulators, the moving team's first
+    private final int[] hiddenActivations;
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES]; // scratch space for the check mate test
+
+    public NnueBoardScore(final NnueWeights weights) {
+        this.weights = weights;
+        this.accumulator = new NnueAccumulator(weights);
+        this.activations = new int[2 * weights.getHiddenSize()];
+        this.hiddenActivations = new int[weights.getOutputHiddenSize()];
+    }
+
+    @Override
+    public int score(final ChessBoard board, final int treeLevel) {
+        return score(new SearchBoard(board), treeLevel);
+    }
+
+    @Override
+    public int score(final SearchBoard board, final int treeLevel) {
+        final Team mover = board.getCurrentMover();
+        if(board.isCheck() && !MoveGenerator.hasLegalMove(board, mover, this.moveBuffer, 0)) {
+            return mover.isWhite() ? -EvaluateBoardScore.checkMateScore(treeLevel) :
+                    EvaluateBoardScore.checkMateScore(treeLevel);
+        }
+        if(!this.accumulator.isAttached(board)) {
+            this.accumulator.attach(board);
+        }
+        final int score = propagate(this.accumulator.getAccumulator(mover),
+                this.accumulator.getAccumulator(mover.getEnemyTeam()));
+        return mover.isWhite() ? score : -score;
+    }
+
+    // propagate(moverAccumulator, enemyAccumulator) runs the hidden and output layers on the given accumulators, and
+    //  returns the score of the moving team.
+    private int propagate(final int[] moverAccumulator, final int[] enemyAccumulator) {
+        final int hiddenSize = moverAccumulator.length;
+        for(int i = 0; i < hiddenSize; i++) {
+            this.activations[i] = clip(moverAccumulator[i]);
+            this.activations[hiddenSize + i] = clip(enemyAccumulator[i]);
+        }
+        final short[] hiddenWeights = this.weights.getHiddenWeights();
+        final int[] hiddenBiases = this.weights.getHiddenBiases();
+        for(int j = 0; j < this.hiddenActivations.length; j++) {
+            final int row = j * this.activations.length;
+            int sum = 0;
+            for(int i = 0; i < this.activations.length; i++) {
+                sum += this.activations[i] * hiddenWeights[row + i];
+            }
+            this.hiddenActivations[j] = clip((sum + hiddenBiases[j]) >> HIDDEN_SHIFT);
+        }
+        final short[] outputWeights = this.weights.getOutputWeights();
+        int output = this.weights.getOutputBias();
+        for(int j = 0; j < this.hiddenActivations.length; j++) {
+            output += this.hiddenActivations[j] * outputWeights[j];
+        }
+        return output / OUTPUT_DIVISOR;
+    }
+
+    // clip(value) returns the given value clipped to [0, ACTIVATION_MAX] (clipped ReLU).
+    private static int clip(final int value) {
+        return Math.min(Math.max(value, 0), ACTIVATION_MAX);
+    }
+}
@@ -0,0 +1,132 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.ChessBoard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// NnueWeights holds the quantized weights of the neural network of NnueBoardScore, loaded from a binary file:
+//  - the feature layer: one row of hiddenSize weights per HalfKP feature (see feature()), and hiddenSize biases,
+//  - the hidden layer: one row of 2 * hiddenSize weights per hidden neuron (the accumulator of the moving team, then
+//    the one of its enemy), and outputHiddenSize biases,
+//  - the output layer: outputHiddenSize weights and one bias.
+// The file starts with MAGIC, VERSION, hiddenSize and outputHiddenSize, followed by the weights and biases in the order
+//  above: 16-bit weights and feature biases, 32-bit hidden and output biases, all of them little-endian.
+// The feature layer is by far the largest part of the file (FEATURES rows), so it is not read into memory: it is read
+//  straight from the memory mapped file, shared by every NnueBoardScore using the same NnueWeights.
+public final class NnueWeights {
+    public static final int MAGIC = 0x45554E4E; // "NNUE" in little-endian
+    public static final int VERSION = 1;
+    public static final int PIECE_KINDS = 10; // Pawn to Queen, of the perspective team or of its enemy
+    public static final int FEATURES = ChessBoard.TOTAL_TILES * PIECE_KINDS * ChessBoard.TOTAL_TILES;
+    private static final int HEADER_BYTES = 4 * Integer.BYTES;
+    private static final int MAX_HIDDEN_SIZE = 4096;
+
+    private final int hiddenSize; // neurons of the feature layer, per perspective
+    private final int outputHiddenSize; // neurons of the hidden layer
+    private final ShortBuffer featureWeights; // FEATURES rows of hiddenSize weights, memory mapped
+    private final short[] featureBiases;
+    private final short[] hiddenWeights; // outputHiddenSize rows of 2 * hiddenSize weights
+    private final int[] hiddenBiases;
+    private final short[] outputWeights;
+    private final int outputBias;
+
+    private NnueWeights(final int hiddenSize, final int outputHiddenSize, final ByteBuffer buffer) {
+        this.hiddenSize = hiddenSize;
+        this.outputHiddenSize = outputHiddenSize;
+        this.featureWeights = buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer();
+        buffer.position(buffer.position() + FEATURES * hiddenSize * Short.BYTES);
+        this.featureBiases = new short[hiddenSize];
+        buffer.asShortBuffer().get(this.featureBiases);
+        buffer.position(buffer.position() + hiddenSize * Short.BYTES);
+        this.hiddenWeights = new short[outputHiddenSize * 2 * hiddenSize];
+        buffer.asShortBuffer().get(this.hiddenWeights);
+        buffer.position(buffer.position() + this.hiddenWeights.length * Short.BYTES);
+        this.hiddenBiases = new int[outputHiddenSize];
+        buffer.asIntBuffer().get(this.hiddenBiases);
+        buffer.position(buffer.position() + outputHiddenSize * Integer.BYTES);
+        this.outputWeights = new short[outputHiddenSize];
+        buffer.asShortBuffer().get(this.outputWeights);
+        buffer.position(buffer.position() + outputHiddenSize * Short.BYTES);
+        this.outputBias = buffer.getInt();
+    }
+
+    // load(path) maps the weights file at the given path into memory and reads its smaller layers. The mapping stays
+    //  valid once the file is closed.
+    public static NnueWeights load(final Path path) throws IOException {
+        try(final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if(channel.size() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IllegalArgumentException("INVALID NNUE WEIGHTS FILE: " + path + "!");
+            }
+            final int hiddenSize = buffer.getInt();
+            final int outputHiddenSize = buffer.getInt();
+            if(hiddenSize <= 0 || hiddenSize > MAX_HIDDEN_SIZE || outputHiddenSize <= 0 ||
+                    outputHiddenSize > MAX_HIDDEN_SIZE || channel.size() != fileSize(hiddenSize, outputHiddenSize)) {
+                throw new IllegalArgumentException("INVALID NNUE WEIGHTS FILE: " + path + "!");
+            }
+            return new NnueWeights(hiddenSize, outputHiddenSize, buffer);
+        }
+    }
+
+    // fileSize(hiddenSize, outputHiddenSize) returns the size in bytes of a weights file with the given layer sizes.
+    public static long fileSize(final int hiddenSize, final int outputHiddenSize) {
+        return HEADER_BYTES + (long) FEATURES * hiddenSize * Short.BYTES + hiddenSize * Short.BYTES +
+                (long) outputHiddenSize * 2 * hiddenSize * Short.BYTES + outputHiddenSize * Integer.BYTES +
+                outputHiddenSize * Short.BYTES + Integer.BYTES;
+    }
+
+    // feature(kingTile, pieceKind, coordinate) returns the HalfKP feature of a piece of the given kind (2 * piece type
+    //  ordinal, + 1 for an enemy piece) on the given tile, seen by a team with its King on the given tile. Tiles are
+    //  seen from the side of that team.
+    public static int feature(final int kingTile, final int pieceKind, final int coordinate) {
+        return (kingTile * PIECE_KINDS + pieceKind) * ChessBoard.TOTAL_TILES + coordinate;
+    }
+
+    public int getHiddenSize() {
+        return this.hiddenSize;
+    }
+
+    public int getOutputHiddenSize() {
+        return this.outputHiddenSize;
+    }
+
+    // addFeature(accumulator, feature, sign) adds (sign 1) or subtracts (sign -1) the feature layer weights of the
+    //  given feature to or from the given accumulator.
+    void addFeature(final int[] accumulator, final int feature, final int sign) {
+        final int row = feature * this.hiddenSize;
+        for(int i = 0; i < this.hiddenSize; i++) {
+            accumulator[i] += sign * this.featureWeights.get(row + i);
+        }
+    }
+
+    // resetAccumulator(accumulator) sets the given accumulator to the feature layer biases (no feature).
+    void resetAccumulator(final int[] accumulator) {
+        for(int i = 0; i < this.hiddenSize; i++) {
+            accumulator[i] = this.featureBiases[i];
+        }
+    }
+
+    short[] getHiddenWeights() {
+        return this.hiddenWeights;
+    }
+
+    int[] getHiddenBiases() {
+        return this.hiddenBiases;
+    }
+
+    short[] getOutputWeights() {
+        return this.outputWeights;
+    }
+
+    int getOutputBias() {
+        return this.outputBias;
+    }
+}
@@ -0,0 +1,49 @@
+package com.chessgame.player.aiopponent;
+
+// A PawnHashTable remembers the pawn structure score (see PawnStructure) of every board evaluated, keyed by the pawns
+//  key of the board (see SearchBoard.getPawnKey()). The Pawns move on few of the moves searched, so most boards find
+//  the score of their Pawns in the table instead of computing it again.
+// The table has a fixed power of two number of entries, and a new score always replaces the old one of its entry. It
+//  belongs to a single EvaluateBoardScore, so it is not shared between threads. An empty entry has a key of 0 and a
+//  score of 0, which is right for the key of a board without Pawns.
+public final class PawnHashTable {
+    public static final int NO_SCORE = Integer.MIN_VALUE; // returned by probe() when the Pawns are not in the table
+
+    private final long[] keys;
+    private final int[] scores;
+    private final int indexMask; // number of entries - 1
+    private long probeCount;
+    private long hitCount;
+
+    public PawnHashTable(final int entries) {
+        if (entries <= 0 || Integer.bitCount(entries) != 1) {
+            throw new IllegalArgumentException("INVALID PAWN HASH TABLE SIZE: " + entries + " ENTRIES!");
+        }
+        this.keys = new long[entries];
+        this.scores = new int[entries];
+        this.indexMask = entries - 1;
+    }
+
+    // probe(pawnKey) returns the pawn structure score of the Pawns with the given key, or NO_SCORE.
+    public int probe(final long pawnKey) {
+        final int index = (int) pawnKey & this.indexMask;
+        this.probeCount++;
+        if (this.keys[index] != pawnKey) {
+            return NO_SCORE;
+        }
+        this.hitCount++;
+        return this.scores[index];
+    }
+
+    // store(pawnKey, score) saves the pawn structure score of the Pawns with the given key.
+    public void store(final long pawnKey, final int score) {
+        final int index = (int) pawnKey & this.indexMask;
+        this.keys[index] = pawnKey;
+        this.scores[index] = score;
+    }
+
+    // getHitRate() returns the share of the probes that found their Pawns in the table, from 0 to 1.
+    public double getHitRate() {
+        return this.probeCount == 0 ? 0.0 : (double) this.hitCount / this.probeCount;
+    }
+}
@@ -0,0 +1,128 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.AttackTables;
+import com.chessgame.board.BitBoard;
+import com.chessgame.board.ChessBoard;
+import com.chessgame.board.PieceSquareTables;
+import com.chessgame.pieces.ChessPiece;
+import com.chessgame.player.Team;
+
+// PawnStructure scores the pawns of both teams, White minus Black like BoardScore:
+//  - a doubled Pawn (another Pawn of its team in front of it on its column) is hard to move and to defend,
+//  - an isolated Pawn (no Pawn of its team on the columns next to it) can only be defended by pieces,
+//  - a backward Pawn (no Pawn of its team next to it or behind it on the columns next to it, and an enemy Pawn
+//    guarding the tile in front of it) cannot move forward safely and is left behind,
+//  - a passed Pawn (no enemy Pawn in front of it on its column or the columns next to it) can only be stopped by
+//    pieces, and is worth more the closer it gets to its promotion.
+// These only depend on where the Pawns are, so their score is cached by the pawns key of the board (see
+//  PawnHashTable). The pawn shield of each King (the Pawns of its team right in front of it) also depends on the King's
+//  tile, so it is scored apart, and only counts while there are enough pieces left to attack the King.
+public final class PawnStructure {
+    private static final int DOUBLED_PAWN_SCORE = -10;
+    private static final int ISOLATED_PAWN_SCORE = -15;
+    private static final int BACKWARD_PAWN_SCORE = -8;
+    private static final int[] PASSED_PAWN_SCORES = {0, 5, 10, 20, 35, 60, 100, 0}; // per row away from its first row
+    private static final int NEAR_SHIELD_SCORE = 10; // per Pawn on the row right in front of the King
+    private static final int FAR_SHIELD_SCORE = 5; // per Pawn two rows in front of the King
+    private static final long FIRST_COLUMN = 0x0101010101010101L;
+
+    // Masks of each team (by ordinal) and tile:
+    private static final long[][] FRONT_TILES = new long[2][ChessBoard.TOTAL_TILES]; // same column, further rows
+    private static final long[][] PASSED_PAWN_MASKS = new long[2][ChessBoard.TOTAL_TILES]; // front tiles of 3 columns
+    private static final long[][] SUPPORT_MASKS = new long[2][ChessBoard.TOTAL_TILES]; // next columns, not in front
+    private static final long[][] NEAR_SHIELD_MASKS = new long[2][ChessBoard.TOTAL_TILES];
+    private static final long[][] FAR_SHIELD_MASKS = new long[2][ChessBoard.TOTAL_TILES];
+    private static final long[] NEIGHBOUR_COLUMNS = new long[8];
+
+    static {
+        for (int column = 0; column < 8; column++) {
+            NEIGHBOUR_COLUMNS[column] = (column > 0 ? FIRST_COLUMN << (column - 1) : 0L) |
+                    (column < 7 ? FIRST_COLUMN << (column + 1) : 0L);
+        }
+        for (final Team team : Team.values()) {
+            final int side = team.ordinal();
+            for (int coordinate = 0; coordinate < ChessBoard.TOTAL_TILES; coordinate++) {
+                final int row = coordinate >>> 3;
+                final long columns = NEIGHBOUR_COLUMNS[coordinate & 7] | (FIRST_COLUMN << (coordinate & 7));
+                for (int otherRow = 0; otherRow < 8; otherRow++) {
+                    final long rowMask = 0xFFL << (8 * otherRow);
+                    // rows are counted in the moving direction of the team (White moves to the lower rows):
+                    final int rowsAhead = (otherRow - row) * team.getDirection();
+                    if (rowsAhead > 0) {
+                        FRONT_TILES[side][coordinate] |= rowMask & (FIRST_COLUMN << (coordinate & 7));
+                        PASSED_PAWN_MASKS[side][coordinate] |= rowMask & columns;
+                    }
+                    else {
+                        SUPPORT_MASKS[side][coordinate] |= rowMask & NEIGHBOUR_COLUMNS[coordinate & 7];
+                    }
+                    if (rowsAhead == 1) {
+                        NEAR_SHIELD_MASKS[side][coordinate] = rowMask & columns;
+                    }
+                    else if (rowsAhead == 2) {
+                        FAR_SHIELD_MASKS[side][coordinate] = rowMask & columns;
+                    }
+                }
+            }
+        }
+    }
+
+    private PawnStructure() {
+        throw new RuntimeException("ERROR: Not instantiable");
+    }
+
+    // score(whitePawns, blackPawns) returns the pawn structure score of the given Pawn masks, White minus Black.
+    public static int score(final long whitePawns, final long blackPawns) {
+        return teamScore(Team.WHITE, whitePawns, blackPawns) - teamScore(Team.BLACK, blackPawns, whitePawns);
+    }
+
+    // shieldScore(bitBoard, gamePhase) returns the pawn shield score of both Kings of the given piece masks, White
+    //  minus Black, tapered by the given game phase (see PieceSquareTables): nothing is left of it once the pieces are
+    //  gone.
+    public static int shieldScore(final BitBoard bitBoard, final int gamePhase) {
+        return shieldScore(bitBoard.getPieces(Team.WHITE, ChessPiece.pieceType.PAWN),
+                bitBoard.getPieces(Team.BLACK, ChessPiece.pieceType.PAWN), bitBoard.getKingTile(Team.WHITE),
+                bitBoard.getKingTile(Team.BLACK), gamePhase);
+    }
+
+    // shieldScore(whitePawns, blackPawns, whiteKingTile, blackKingTile, gamePhase) returns the same pawn shield score,
+    //  from the given Pawn masks and King tiles.
+    public static int shieldScore(final long whitePawns, final long blackPawns, final int whiteKingTile,
+                                  final int blackKingTile, final int gamePhase) {
+        final int shieldScore = teamShieldScore(Team.WHITE, whitePawns, whiteKingTile) -
+                teamShieldScore(Team.BLACK, blackPawns, blackKingTile);
+        return shieldScore * Math.min(gamePhase, PieceSquareTables.MAX_GAME_PHASE) / PieceSquareTables.MAX_GAME_PHASE;
+    }
+
+    // teamScore(team, pawns, enemyPawns) returns the pawn structure score of the given team's Pawns.
+    private static int teamScore(final Team team, final long pawns, final long enemyPawns) {
+        final int side = team.ordinal();
+        int score = 0;
+        for (long mask = pawns; mask != BitBoard.EMPTY; mask &= mask - 1) {
+            final int coordinate = BitBoard.firstTile(mask);
+            final boolean isDoubled = (pawns & FRONT_TILES[side][coordinate]) != BitBoard.EMPTY;
+            if (isDoubled) {
+                score += DOUBLED_PAWN_SCORE;
+            }
+            if ((pawns & NEIGHBOUR_COLUMNS[coordinate & 7]) == BitBoard.EMPTY) {
+                score += ISOLATED_PAWN_SCORE;
+            }
+            else if ((pawns & SUPPORT_MASKS[side][coordinate]) == BitBoard.EMPTY && (enemyPawns &
+                    AttackTables.pawnAttacks(team, coordinate + 8 * team.getDirection())) != BitBoard.EMPTY) {
+                score += BACKWARD_PAWN_SCORE;
+            }
+            // only the front Pawn of a doubled pair can be passed:
+            if (!isDoubled && (enemyPawns & PASSED_PAWN_MASKS[side][coordinate]) == BitBoard.EMPTY) {
+                final int row = coordinate >>> 3;
+                score += PASSED_PAWN_SCORES[team.isWhite() ? 7 - row : row];
+            }
+        }
+        return score;
+    }
+
+    // teamShieldScore(team, pawns, kingTile) returns the (untapered) pawn shield score of the given team's King on the
+    //  given tile, with the given Pawns of its team.
+    private static int teamShieldScore(final Team team, final long pawns, final int kingTile) {
+        return NEAR_SHIELD_SCORE * BitBoard.tileCount(pawns & NEAR_SHIELD_MASKS[team.ordinal()][kingTile]) +
+                FAR_SHIELD_SCORE * BitBoard.tileCount(pawns & FAR_SHIELD_MASKS[team.ordinal()][kingTile]);
+    }
+}
@@ -0,0 +1,127 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.SearchBoard;
+import com.chessgame.movement.Move;
+import com.chessgame.movement.PackedMove;
+
+// PrincipalVariationSearch (NegaScout) is AlphaBeta (quiescence search on) that trusts its move ordering: the first
+//  move of each board is searched with the full window, and every other move with a null window that only proves it
+//  is not better than the first one. A move that turns out to be better is searched again with the full window.
+// The tree levels are searched by iterative deepening, each one within an aspiration window of ASPIRATION_WINDOW
+//  points around the value of the previous tree level. If the value falls outside of the window, the side it fell on
+//  is opened up and the tree level is searched again.
+// Unlike AlphaBeta, the best root move is the first one found of the best value, so it can differ from Minimax on a
+//  tie. getNodeCount() gives the boards searched, to compare with AlphaBeta at the same tree level.
+public class PrincipalVariationSearch implements Algorithms {
+    private static final int ASPIRATION_WINDOW = 50; // half width of the first window, in points
+
+    private final int treeLevel; // deepest tree level searched
+    private final long timeBudget; // milliseconds per move
+    private final AlphaBeta alphaBeta; // keeps its transposition table and move ordering from one search to the next
+    private int completedTreeLevel; // tree level of the last search completed
+    private int researchCount; // tree levels searched again because their value fell outside of the aspiration window
+
+    // PrincipalVariationSearch(treeLevel) searches every move down to the given tree level, however long it takes.
+    public PrincipalVariationSearch(final int treeLevel) {
+        this(treeLevel, Long.MAX_VALUE);
+    }
+
+    // PrincipalVariationSearch(treeLevel, timeBudget) stops at the given tree level, or when the given time budget (in
+    //  milliseconds) is spent.
+    public PrincipalVariationSearch(final int treeLevel, final long timeBudget) {
+        this(treeLevel, timeBudget, 0);
+    }
+
+    // selectiveOptions is a combination of the AlphaBeta selective search options (AlphaBeta.NULL_MOVE_PRUNING...).
+    public PrincipalVariationSearch(final int treeLevel, final long timeBudget, final int selectiveOptions) {
+        this.treeLevel = Math.min(treeLevel, IterativeDeepening.MAX_TREE_LEVEL);
+        this.timeBudget = timeBudget;
+        this.alphaBeta = new AlphaBeta(this.treeLevel, true, true, selectiveOptions,
+                new TranspositionTable(Minimax.TRANSPOSITION_TABLE_MB));
+    }
+
+    @Override
+    public Move runAlgorithm(final ChessBoard board) {
+        final long startTime = System.currentTimeMillis();
+        final long stopTime = this.timeBudget > Long.MAX_VALUE - startTime ? Long.MAX_VALUE :
+                startTime + this.timeBudget;
+        final SearchBoard searchBoard = new SearchBoard(board);
+        this.alphaBeta.newSearch();
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int moveCount = MoveGenerator.generateLegalMoves(searchBoard, searchBoard.getCurrentMover(), moves, 0);
+        if(moveCount == 0) {
+            return null;
+        }
+        // search order of the root moves (indexes of moves):
+        final int[] order = new int[moveCount];
+        for(int i = 0; i < moveCount; i++) {
+            order[i] = i;
+        }
+        int bestIndex = 0;
+        int value = 0;
+        this.completedTreeLevel = 0;
+        this.researchCount = 0;
+        // the first search always runs to the end, so that there is always a searched move to return:
+        for(int level = 1; level <= this.treeLevel && System.currentTimeMillis() < stopTime; level++) {
+            final long levelStopTime = level == 1 ? Long.MAX_VALUE : stopTime;
+            int alpha = level == 1 ? -AlphaBeta.INFINITE_SCORE : value - ASPIRATION_WINDOW;
+            int beta = level == 1 ? AlphaBeta.INFINITE_SCORE : value + ASPIRATION_WINDOW;
+            int levelValue = this.alphaBeta.searchRoot(searchBoard, level, moves, order, moveCount, alpha, beta,
+                    levelStopTime);
+            // a value outside of the window is only a bound: search again with that side of the window opened up
+            while(this.alphaBeta.getRootBestIndex() != AlphaBeta.NO_MOVE_INDEX && (levelValue <= alpha ||
+                    levelValue >= beta)) {
+                this.researchCount++;
+                if(levelValue <= alpha) {
+                    alpha = -AlphaBeta.INFINITE_SCORE;
+                }
+                else {
+                    beta = AlphaBeta.INFINITE_SCORE;
+                }
+                levelValue = this.alphaBeta.searchRoot(searchBoard, level, moves, order, moveCount, alpha, beta,
+                        levelStopTime);
+            }
+            if(this.alphaBeta.getRootBestIndex() == AlphaBeta.NO_MOVE_INDEX) {
+                break;
+            }
+            bestIndex = this.alphaBeta.getRootBestIndex();
+            value = levelValue;
+            this.completedTreeLevel = level;
+            IterativeDeepening.searchFirst(order, bestIndex);
+            // with a single legal move, there is nothing to choose:
+            if(moveCount == 1) {
+                break;
+            }
+        }
+        return PackedMove.toMove(board, moves[bestIndex]);
+    }
+
+    // getCompletedTreeLevel() returns the tree level of the deepest search completed by the last runAlgorithm().
+    public int getCompletedTreeLevel() {
+        return this.completedTreeLevel;
+    }
+
+    // getNodeCount() returns the number of boards searched by the last runAlgorithm().
+    public long getNodeCount() {
+        return this.alphaBeta.getNodeCount();
+    }
+
+    // getSelectiveCount(option) returns how many times the given selective search option fired during the last
+    //  runAlgorithm() (see AlphaBeta.getSelectiveCount()).
+    public long getSelectiveCount(final int option) {
+        return this.alphaBeta.getSelectiveCount(option);
+    }
+
+    // getResearchCount() returns the number of tree levels the last runAlgorithm() had to search again because their
+    //  value fell outside of the aspiration window.
+    public int getResearchCount() {
+        return this.researchCount;
+    }
+
+    @Override
+    public String toString() {
+        return "PrincipalVariationSearch";
+    }
+}
@@ -0,0 +1,125 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.movement.PackedMove;
+
+import java.util.Arrays;
+
+// A TranspositionTable remembers the result of every board searched by the AI, keyed by the board's Zobrist key (see
+//  SearchBoard.getZobristKey()), so that a board reached again through another move order is not searched twice.
+// The table has a fixed power of two number of entries, each packed into two longs of a single long[]: the entry data
+//  (score, depth, bound type, best move and age) and the board key XORed with that data. An entry is only returned if
+//  the key XOR data matches the probed key, so an entry half written by another thread (or overwritten by another
+//  board) is simply seen as missing: threads share the table without any lock.
+public final class TranspositionTable {
+    public static final long NO_ENTRY = 0L; // returned by probe() when the board is not in the table
+    // Bound types of a stored score (never 0, so that an entry is never NO_ENTRY):
+    public static final int EXACT = 1; // the score of the board
+    public static final int LOWER_BOUND = 2; // the board is worth at least the score (the search was cut off above it)
+    public static final int UPPER_BOUND = 3; // the board is worth at most the score (no move reached above it)
+
+    private static final int ENTRY_SIZE = 2; // longs per entry
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+    // Layout of the entry data:
+    private static final int SCORE_BITS = 32; // bits 0-31: score
+    private static final int DEPTH_SHIFT = 32; // bits 32-39: depth (tree levels searched below the board)
+    private static final int BOUND_SHIFT = 40; // bits 40-41: bound type
+    private static final int AGE_SHIFT = 42; // bits 42-47: age (search number)
+    private static final int MOVE_SHIFT = 48; // bits 48-59: best move current and destination coordinates
+    private static final int DEPTH_MASK = 0xFF;
+    private static final int BOUND_MASK = 0x3;
+    private static final int AGE_MASK = 0x3F;
+    private static final int MOVE_MASK = 0xFFF;
+
+    private final long[] slots;
+    private final int indexMask; // number of entries - 1
+    private int age; // number of the current search, only changed between searches
+
+    public TranspositionTable(final int sizeInMB) {
+        if (sizeInMB <= 0) {
+            throw new IllegalArgumentException("INVALID TRANSPOSITION TABLE SIZE: " + sizeInMB + " MB!");
+        }
+        // the largest power of two number of entries fitting in the given size:
+        final long entries = Long.highestOneBit(sizeInMB * BYTES_PER_MB / (ENTRY_SIZE * Long.BYTES));
+        this.slots = new long[(int) Math.min(entries * ENTRY_SIZE, Integer.highestOneBit(Integer.MAX_VALUE))];
+        this.indexMask = this.slots.length / ENTRY_SIZE - 1;
+        this.age = 0;
+    }
+
+    // newSearch() starts a new search: the entries of older searches become the first ones to be replaced.
+    public void newSearch() {
+        this.age = (this.age + 1) & AGE_MASK;
+    }
+
+    // clear() removes every entry of the table.
+    public void clear() {
+        Arrays.fill(this.slots, 0L);
+    }
+
+    // probe(key) returns the data of the entry of the board with the given key, or NO_ENTRY. The parts of the data are
+    //  read with getScore(), getDepth(), getBound() and getMoveTiles().
+    public long probe(final long key) {
+        final int slot = slot(key);
+        final long data = this.slots[slot + 1];
+        // the stored key was XORed with the data it was written with:
+        if ((this.slots[slot] ^ data) != key) {
+            return NO_ENTRY;
+        }
+        return data;
+    }
+
+    // store(key, depth, score, bound, move) saves the search result of the board with the given key: its score of the
+    //  given bound type, found by searching depth tree levels below it, and the best packed move found (or
+    //  PackedMove.NO_MOVE). An entry of the current search is only replaced by a result searched at least as deep, or by
+    //  a result of the same board; an entry of an older search is always replaced.
+    public void store(final long key, final int depth, final int score, final int bound, final int move) {
+        final int slot = slot(key);
+        final long oldData = this.slots[slot + 1];
+        final boolean isSameBoard = (this.slots[slot] ^ oldData) == key;
+        if (!isSameBoard && oldData != NO_ENTRY && getAge(oldData) == this.age && getDepth(oldData) > depth) {
+            return;
+        }
+        final long moveTiles = move == PackedMove.NO_MOVE ? 0L :
+                PackedMove.getCurrentCrd(move) | (PackedMove.getDestinationCrd(move) << 6);
+        final long data = (score & 0xFFFFFFFFL) | ((long) (depth & DEPTH_MASK) << DEPTH_SHIFT) |
+                ((long) bound << BOUND_SHIFT) | ((long) this.age << AGE_SHIFT) | (moveTiles << MOVE_SHIFT);
+        this.slots[slot] = key ^ data;
+        this.slots[slot + 1] = data;
+    }
+
+    // getScore(data) returns the score of the given entry data.
+    public static int getScore(final long data) {
+        return (int) (data & ((1L << SCORE_BITS) - 1));
+    }
+
+    // getDepth(data) returns the number of tree levels searched below the board of the given entry data.
+    public static int getDepth(final long data) {
+        return (int) (data >>> DEPTH_SHIFT) & DEPTH_MASK;
+    }
+
+    // getBound(data) returns the bound type (EXACT, LOWER_BOUND or UPPER_BOUND) of the score of the given entry data.
+    public static int getBound(final long data) {
+        return (int) (data >>> BOUND_SHIFT) & BOUND_MASK;
+    }
+
+    // getMoveTiles(data) returns the current coordinate | (destination coordinate << 6) of the best move of the given
+    //  entry data, or 0 if there is none.
+    public static int getMoveTiles(final long data) {
+        return (int) (data >>> MOVE_SHIFT) & MOVE_MASK;
+    }
+
+    // isMove(data, move) checks if the given packed move is the best move of the given entry data.
+    public static boolean isMove(final long data, final int move) {
+        return data != NO_ENTRY && getMoveTiles(data) ==
+                (PackedMove.getCurrentCrd(move) | (PackedMove.getDestinationCrd(move) << 6));
+    }
+
+    // getAge(data) returns the search number of the given entry data.
+    private static int getAge(final long data) {
+        return (int) (data >>> AGE_SHIFT) & AGE_MASK;
+    }
+
+    // slot(key) returns the index of the first long of the entry of the given key.
+    private int slot(final long key) {
+        return ((int) key & this.indexMask) * ENTRY_SIZE;
+    }
+}
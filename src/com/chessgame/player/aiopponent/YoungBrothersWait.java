@@ -0,0 +1,397 @@
+package com.chessgame.player.aiopponent;
+
+import com.chessgame.board.ChessBoard;
+import com.chessgame.board.MoveGenerator;
+import com.chessgame.board.SearchBoard;
+import com.chessgame.movement.Move;
+import com.chessgame.movement.PackedMove;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+// YoungBrothersWait is a parallel alpha-beta search (Young Brothers Wait Concept): on every board at least
+//  SPLIT_TREE_LEVEL tree levels above the last one, the first move (the eldest brother) is searched alone, since it
+//  most often causes a refutation or sets the window for the others. Only then are the other moves (the young
+//  brothers) forked as tasks of a work-stealing ForkJoinPool, so that idle threads steal them and search them in
+//  parallel. The moves share the window of their board (a SplitPoint): each result tightens it for the moves not
+//  searched yet, and a refutation cancels them.
+// The boards closer to the last tree level are searched serially by an AlphaBeta (quiescence search on) of the thread
+//  running them. Every thread shares the same lock-free transposition table. The tree levels are searched by
+//  iterative deepening, like IterativeDeepening.
+// Each pool thread takes a ThreadSearch when it starts, and gives it back when the pool retires it, so that the next
+//  thread reuses it. The pool threads run until close().
+public class YoungBrothersWait implements Algorithms, AutoCloseable {
+    private static final int SPLIT_TREE_LEVEL = 3; // boards with fewer tree levels left are searched serially
+
+    private final int treeLevel; // deepest tree level searched
+    private final long timeBudget; // milliseconds per move
+    private final ForkJoinPool pool;
+    private final TranspositionTable transpositionTable; // shared by all the threads
+    private final Queue<ThreadSearch> freeThreadSearches; // ThreadSearches of no running thread of the pool
+    private final Queue<ThreadSearch> allThreadSearches; // every ThreadSearch created, to reset and count them
+    // search state of the thread calling runAlgorithm(), which may run some of the tasks itself while it waits:
+    private final ThreadSearch callerThreadSearch;
+    private final AtomicLong splitCount; // boards whose young brothers were forked
+    private final AtomicLong cancelCount; // boards whose young brothers were cancelled by a refutation
+    private volatile long stopTime; // System.currentTimeMillis() at which the current search stops
+    private volatile boolean isStopped;
+    private int rootBestMove; // best packed move of the root board found by the last search
+    private int completedTreeLevel; // tree level of the last search completed
+
+    // YoungBrothersWait(timeBudget) deepens the search until the given time budget is spent, splitting the younger
+    //  brothers of each board across one thread per available processor.
+    public YoungBrothersWait(final Duration timeBudget) {
+        this(IterativeDeepening.MAX_TREE_LEVEL, timeBudget.toMillis(), Runtime.getRuntime().availableProcessors());
+    }
+
+    // YoungBrothersWait(treeLevel, timeBudget, threadCount) stops at the given tree level, or when the given time budget
+    //  (in milliseconds) is spent.
+    public YoungBrothersWait(final int treeLevel, final long timeBudget, final int threadCount) {
+        if(threadCount <= 0) {
+            throw new IllegalArgumentException("INVALID THREAD COUNT: " + threadCount + "!");
+        }
+        this.treeLevel = Math.min(treeLevel, IterativeDeepening.MAX_TREE_LEVEL);
+        this.timeBudget = timeBudget;
+        this.transpositionTable = new TranspositionTable(Minimax.TRANSPOSITION_TABLE_MB);
+        this.freeThreadSearches = new ConcurrentLinkedQueue<>();
+        this.allThreadSearches = new ConcurrentLinkedQueue<>();
+        this.callerThreadSearch = new ThreadSearch();
+        this.allThreadSearches.add(this.callerThreadSearch);
+        this.pool = new ForkJoinPool(threadCount, SearchThread::new, null, false);
+        this.splitCount = new AtomicLong();
+        this.cancelCount = new AtomicLong();
+    }
+
+    @Override
+    public Move runAlgorithm(final ChessBoard board) {
+        final long startTime = System.currentTimeMillis();
+        final long searchStopTime = this.timeBudget > Long.MAX_VALUE - startTime ? Long.MAX_VALUE :
+                startTime + this.timeBudget;
+        final SearchBoard searchBoard = new SearchBoard(board);
+        if(!MoveGenerator.hasLegalMove(searchBoard, searchBoard.getCurrentMover(), new int[MoveGenerator.MAX_MOVES],
+                0)) {
+            return null;
+        }
+        this.transpositionTable.newSearch();
+        for(final ThreadSearch threadSearch : this.allThreadSearches) {
+            threadSearch.newSearch();
+        }
+        this.splitCount.set(0);
+        this.cancelCount.set(0);
+        int bestMove = PackedMove.NO_MOVE;
+        this.completedTreeLevel = 0;
+        // the first search always runs to the end, so that there is always a searched move to return:
+        for(int level = 1; level <= this.treeLevel && System.currentTimeMillis() < searchStopTime; level++) {
+            this.stopTime = level == 1 ? Long.MAX_VALUE : searchStopTime;
+            this.isStopped = false;
+            this.rootBestMove = PackedMove.NO_MOVE;
+            this.pool.invoke(new BoardSearch(searchBoard, level));
+            if(this.isStopped || this.rootBestMove == PackedMove.NO_MOVE) {
+                break;
+            }
+            bestMove = this.rootBestMove;
+            this.completedTreeLevel = level;
+        }
+        return PackedMove.toMove(board, bestMove);
+    }
+
+    // getCompletedTreeLevel() returns the tree level of the deepest search completed by the last runAlgorithm().
+    public int getCompletedTreeLevel() {
+        return this.completedTreeLevel;
+    }
+
+    // getNodeCount() returns the number of boards searched serially by all the threads during the last runAlgorithm().
+    public long getNodeCount() {
+        long nodeCount = 0;
+        for(final ThreadSearch threadSearch : this.allThreadSearches) {
+            nodeCount += threadSearch.alphaBeta.getNodeCount();
+        }
+        return nodeCount;
+    }
+
+    // getSplitCount() returns the number of boards whose young brothers were searched in parallel during the last
+    //  runAlgorithm().
+    public long getSplitCount() {
+        return this.splitCount.get();
+    }
+
+    // getCancelCount() returns the number of boards whose young brothers still to search were cancelled by a
+    //  refutation during the last runAlgorithm().
+    public long getCancelCount() {
+        return this.cancelCount.get();
+    }
+
+    // close() stops the threads of the pool once their current search is done. The YoungBrothersWait must not be used
+    //  afterwards.
+    @Override
+    public void close() {
+        this.pool.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return "YoungBrothersWait";
+    }
+
+    // search(board, treeLevel, alpha, beta, parent) returns the value of the board down to the given tree level within
+    //  the window (alpha, beta), like AlphaBeta.minValue() and maxValue(). parent is the split point of the move that
+    //  led to the board, or null for the root board. The value is meaningless if the search is stopped or cancelled.
+    private int search(final SearchBoard board, final int treeLevel, int alpha, int beta, final SplitPoint parent) {
+        final Thread thread = Thread.currentThread();
+        final ThreadSearch threadSearch = thread instanceof SearchThread &&
+                ((SearchThread) thread).getPool() == this.pool ? ((SearchThread) thread).threadSearch :
+                this.callerThreadSearch;
+        final boolean isMaximizing = board.getCurrentMover().isWhite();
+        if(treeLevel < SPLIT_TREE_LEVEL && board.getPly() > 0) {
+            final AlphaBeta alphaBeta = threadSearch.alphaBeta;
+            alphaBeta.setStopTime(this.stopTime);
+            final int value = isMaximizing ? alphaBeta.maxValue(board, treeLevel, alpha, beta) :
+                    alphaBeta.minValue(board, treeLevel, alpha, beta);
+            if(alphaBeta.isStopped()) {
+                this.isStopped = true;
+            }
+            return value;
+        }
+        if(isAbandoned(parent)) {
+            return 0;
+        }
+        // the moves are copied out of the thread's buffers: the thread may search other boards while waiting for the
+        //  young brothers.
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int moveCount = MoveGenerator.generateLegalMoves(board, board.getCurrentMover(), moves, 0);
+        // no legal move means the game is over (check mate or tie):
+        if(moveCount == 0) {
+            return threadSearch.boardScore.score(board, treeLevel);
+        }
+        final long boardKey = board.getZobristKey();
+        final int[] scores = threadSearch.moveOrdering.scoreMoves(moves, moveCount,
+                this.transpositionTable.probe(boardKey), board.getPly());
+        for(int i = 0; i < moveCount; i++) {
+            MoveOrdering.pickMove(moves, scores, i, moveCount);
+        }
+        final int originalAlpha = alpha;
+        final int originalBeta = beta;
+        // the eldest brother:
+        board.make(moves[0]);
+        final int value = search(board, treeLevel - 1, alpha, beta, parent);
+        board.unmake(moves[0]);
+        if(this.isStopped || isAbandoned(parent)) {
+            return 0;
+        }
+        int bestValue = value;
+        int bestMove = moves[0];
+        if(isMaximizing ? value >= beta : value <= alpha) {
+            threadSearch.moveOrdering.refutation(bestMove, board.getPly(), treeLevel);
+        }
+        else if(moveCount > 1) {
+            if(isMaximizing) {
+                alpha = Math.max(alpha, value);
+            }
+            else {
+                beta = Math.min(beta, value);
+            }
+            // the young brothers:
+            final SplitPoint splitPoint = new SplitPoint(parent, isMaximizing, alpha, beta, value, bestMove);
+            final MoveSearch[] tasks = new MoveSearch[moveCount - 1];
+            for(int i = 1; i < moveCount; i++) {
+                tasks[i - 1] = new MoveSearch(new SearchBoard(board), moves[i], treeLevel, splitPoint);
+            }
+            this.splitCount.incrementAndGet();
+            RecursiveAction.invokeAll(tasks);
+            if(this.isStopped || isAbandoned(parent)) {
+                return 0;
+            }
+            synchronized(splitPoint) {
+                bestValue = splitPoint.bestValue;
+                bestMove = splitPoint.bestMove;
+            }
+            if(isMaximizing ? bestValue >= originalBeta : bestValue <= originalAlpha) {
+                threadSearch.moveOrdering.refutation(bestMove, board.getPly(), treeLevel);
+            }
+        }
+        final int bound;
+        if(bestValue <= originalAlpha) {
+            bound = TranspositionTable.UPPER_BOUND;
+        }
+        else if(bestValue >= originalBeta) {
+            bound = TranspositionTable.LOWER_BOUND;
+        }
+        else {
+            bound = TranspositionTable.EXACT;
+        }
+        this.transpositionTable.store(boardKey, treeLevel, bestValue, bound, bestMove);
+        if(board.getPly() == 0) {
+            this.rootBestMove = bestMove;
+        }
+        return bestValue;
+    }
+
+    // isAbandoned(splitPoint) checks if the search of the given split point, or of any split point above it, is no
+    //  longer needed: refuted, or out of time.
+    private boolean isAbandoned(final SplitPoint splitPoint) {
+        if(this.isStopped) {
+            return true;
+        }
+        if(System.currentTimeMillis() >= this.stopTime) {
+            this.isStopped = true;
+            return true;
+        }
+        for(SplitPoint current = splitPoint; current != null; current = current.parent) {
+            if(current.isCancelled) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // BoardSearch is the task searching the root board down to the given tree level.
+    private final class BoardSearch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final SearchBoard board;
+        private final int treeLevel;
+
+        private BoardSearch(final SearchBoard board, final int treeLevel) {
+            this.board = board;
+            this.treeLevel = treeLevel;
+        }
+
+        @Override
+        protected void compute() {
+            search(this.board, this.treeLevel, -AlphaBeta.INFINITE_SCORE, AlphaBeta.INFINITE_SCORE, null);
+        }
+    }
+
+    // MoveSearch is the task searching a young brother: a single move of the board of a split point, on its own copy of
+    //  the board.
+    private final class MoveSearch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final SearchBoard board;
+        private final int move;
+        private final int treeLevel; // tree levels left on the board of the split point
+        private final SplitPoint splitPoint;
+
+        private MoveSearch(final SearchBoard board, final int move, final int treeLevel, final SplitPoint splitPoint) {
+            this.board = board;
+            this.move = move;
+            this.treeLevel = treeLevel;
+            this.splitPoint = splitPoint;
+        }
+
+        @Override
+        protected void compute() {
+            if(isAbandoned(this.splitPoint)) {
+                return;
+            }
+            final int alpha;
+            final int beta;
+            synchronized(this.splitPoint) {
+                alpha = this.splitPoint.alpha;
+                beta = this.splitPoint.beta;
+            }
+            this.board.make(this.move);
+            final int value = search(this.board, this.treeLevel - 1, alpha, beta, this.splitPoint);
+            this.board.unmake(this.move);
+            if(!isAbandoned(this.splitPoint) && this.splitPoint.update(value, this.move)) {
+                cancelCount.incrementAndGet();
+            }
+        }
+    }
+
+    // A SplitPoint is a board whose young brothers are searched in parallel: it holds the window and best move shared
+    //  by their tasks.
+    private static final class SplitPoint {
+        private final SplitPoint parent; // split point of the move that led to the board, or null
+        private final boolean isMaximizing; // true if White moves on the board
+        private int alpha;
+        private int beta;
+        private int bestValue;
+        private int bestMove;
+        private volatile boolean isCancelled; // true once a move refuted the board
+
+        private SplitPoint(final SplitPoint parent, final boolean isMaximizing, final int alpha, final int beta,
+                           final int bestValue, final int bestMove) {
+            this.parent = parent;
+            this.isMaximizing = isMaximizing;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.bestValue = bestValue;
+            this.bestMove = bestMove;
+        }
+
+        // update(value, move) records the value of the given move, and returns true if it refutes the board (the moves
+        //  still to search are then cancelled).
+        private synchronized boolean update(final int value, final int move) {
+            if(this.isCancelled || (this.isMaximizing ? value <= this.bestValue : value >= this.bestValue)) {
+                return false;
+            }
+            this.bestValue = value;
+            this.bestMove = move;
+            if(this.isMaximizing ? value >= this.beta : value <= this.alpha) {
+                this.isCancelled = true;
+                return true;
+            }
+            if(this.isMaximizing) {
+                this.alpha = Math.max(this.alpha, value);
+            }
+            else {
+                this.beta = Math.min(this.beta, value);
+            }
+            return false;
+        }
+    }
+
+    // A SearchThread is a thread of the pool, holding a ThreadSearch while it runs. The pool may start more threads
+    //  than threadCount while others wait for their young brothers, so ThreadSearches are only created when none is
+    //  free: there are never more of them than threads running at once.
+    private final class SearchThread extends ForkJoinWorkerThread {
+        private ThreadSearch threadSearch;
+
+        private SearchThread(final ForkJoinPool pool) {
+            super(pool);
+        }
+
+        @Override
+        protected void onStart() {
+            super.onStart();
+            final ThreadSearch freeThreadSearch = freeThreadSearches.poll();
+            if(freeThreadSearch != null) {
+                this.threadSearch = freeThreadSearch;
+            }
+            else {
+                this.threadSearch = new ThreadSearch();
+                allThreadSearches.add(this.threadSearch);
+            }
+        }
+
+        @Override
+        protected void onTermination(final Throwable exception) {
+            freeThreadSearches.add(this.threadSearch);
+            super.onTermination(exception);
+        }
+    }
+
+    // A ThreadSearch is the search state of a single thread of the pool: the AlphaBeta searching the boards close to
+    //  the last tree level, and the move ordering and board score of the boards searched in parallel.
+    private final class ThreadSearch {
+        private final AlphaBeta alphaBeta;
+        private final MoveOrdering moveOrdering;
+        private final BoardScore boardScore;
+
+        private ThreadSearch() {
+            this.alphaBeta = new AlphaBeta(treeLevel, true, false, 0, transpositionTable);
+            this.moveOrdering = new MoveOrdering(treeLevel);
+            this.boardScore = new EvaluateBoardScore();
+        }
+
+        // newSearch() prepares the thread for the search of a new board.
+        private void newSearch() {
+            this.alphaBeta.newThreadSearch();
+            this.moveOrdering.newSearch();
+        }
+    }
+}